@@ -2,7 +2,12 @@ package com.example.tasksmanager.config;
 
 import com.example.tasksmanager.jwt.JwtAuthEntryPoint;
 import com.example.tasksmanager.jwt.JwtAuthenticationFilter;
+import com.example.tasksmanager.jwt.JwtKeyProperties;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +28,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(JwtKeyProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -46,6 +52,8 @@ public class SecurityConfig {
                 .sessionManagement((session) -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((authz) -> authz
+                        // the async dispatch that completes a stream was already authorized by its request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/api/user/showAll",
@@ -55,6 +63,7 @@ public class SecurityConfig {
                                 "/webjars/**",
                                 "/swagger-ui.html"
                                 ).permitAll()
+                        .requestMatchers("/api/task/import", "/api/task/import/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 .httpBasic(Customizer.withDefaults());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -76,11 +85,19 @@ public class SecurityConfig {
 
     /**
      * Provides the {@link PasswordEncoder} bean that uses the BCrypt hashing algorithm.
+     * The hashing runs on a dedicated bounded pool, see {@link PooledPasswordEncoder}.
      *
+     * @param meterRegistry the registry the metrics of the pool are published to
+     * @param threads       the number of threads hashing the passwords
+     * @param queueSize     the number of hashing requests that can wait for a thread
+     * @param timeout       the time a request waits for the hashing, in milliseconds
      * @return the configured {@link PasswordEncoder}
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.password.threads:4}") int threads,
+                                           @Value("${auth.password.queue-size:32}") int queueSize,
+                                           @Value("${auth.password.timeout:2000}") long timeout) {
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(), threads, queueSize, timeout, meterRegistry);
     }
 }
@@ -1,6 +1,8 @@
 package com.example.tasksmanager.controller;
 
+import com.example.tasksmanager.dto.AuthResponseDto;
 import com.example.tasksmanager.dto.LoginDto;
+import com.example.tasksmanager.dto.RefreshTokenDto;
 import com.example.tasksmanager.dto.RegisterDto;
 import com.example.tasksmanager.exceptions.ErrorInputDataException;
 import com.example.tasksmanager.exceptions.ErrorRegisterUserException;
@@ -8,10 +10,12 @@ import com.example.tasksmanager.service.impl.AuthServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -30,10 +34,10 @@ public class AuthController {
     }
 
     /**
-     * This method authenticates a user based on the provided credentials and returns a JWT token.
+     * This method authenticates a user based on the provided credentials and returns a JWT token and a refresh token.
      *
      * @param loginDto the DTO containing the user's login credentials
-     * @return a ResponseEntity containing the JWT token and HTTP status 200 if authentication is successful
+     * @return a ResponseEntity containing the tokens and HTTP status 200 if authentication is successful
      */
     @Operation(
             summary = "Authorization",
@@ -49,9 +53,65 @@ public class AuthController {
             }
     )
     @PostMapping("login")
-    public ResponseEntity<String> login(@RequestBody LoginDto loginDto) {
-        String jwtToken = authService.login(loginDto);
-        return new ResponseEntity<>(jwtToken, HttpStatus.OK);
+    public ResponseEntity<AuthResponseDto> login(@RequestBody LoginDto loginDto) {
+        AuthResponseDto tokens = authService.login(loginDto);
+        return new ResponseEntity<>(tokens, HttpStatus.OK);
+    }
+
+    /**
+     * This method exchanges a refresh token for a new JWT token and a new refresh token, without checking the password.
+     *
+     * @param refreshTokenDto the DTO containing the refresh token
+     * @return a ResponseEntity containing the new tokens and HTTP status 200 if the refresh token is valid
+     */
+    @Operation(
+            summary = "Refresh tokens",
+            description = "Exchanges a refresh token for new tokens. Every refresh token can be used only once",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Refresh token is incorrect, expired, revoked or already used",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @PostMapping("refresh")
+    public ResponseEntity<AuthResponseDto> refresh(@RequestBody RefreshTokenDto refreshTokenDto) {
+        AuthResponseDto tokens = authService.refresh(refreshTokenDto);
+        return new ResponseEntity<>(tokens, HttpStatus.OK);
+    }
+
+    /**
+     * This method revokes the JWT token from the Authorization header until it expires,
+     * and a refresh token together with all refresh tokens issued by rotating it.
+     *
+     * @param refreshTokenDto the DTO containing the refresh token
+     * @param authorization   the Authorization header with the JWT token, if present
+     * @return a ResponseEntity containing a success message and HTTP status 200
+     */
+    @Operation(
+            summary = "Logout",
+            description = "Revokes the JWT token from the Authorization header, a refresh token and all refresh tokens issued by rotating it",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "JWT token is expired or incorrect",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @PostMapping("logout")
+    public ResponseEntity<String> logout(@RequestBody RefreshTokenDto refreshTokenDto,
+                                         @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(refreshTokenDto, accessToken);
+        return new ResponseEntity<>("Logged out!", HttpStatus.OK);
     }
 
     /**
@@ -2,10 +2,12 @@ package com.example.tasksmanager.controller;
 
 
 import com.example.tasksmanager.exceptions.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.server.ResponseStatusException;
 
 @ControllerAdvice
@@ -52,5 +54,13 @@ public class CustomExceptionHandler {
         return new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
     }
 
+    @ExceptionHandler(ErrorServiceBusyException.class)
+    public ErrorResponseException errorServiceBusyException(ErrorServiceBusyException e) {
+        ErrorResponseException response = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+        response.setDetail(e.getMessage());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return response;
+    }
+
 
 }
@@ -1,12 +1,23 @@
 package com.example.tasksmanager.controller;
 
 
+import com.example.tasksmanager.dto.BatchTaskResultDto;
+import com.example.tasksmanager.dto.BulkTaskRequestDto;
 import com.example.tasksmanager.dto.CreateTaskDto;
+import com.example.tasksmanager.dto.PatchTaskDto;
+import com.example.tasksmanager.dto.TaskChangeDto;
+import com.example.tasksmanager.dto.TaskImportResultDto;
 import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.dto.TaskSliceDto;
 import com.example.tasksmanager.dto.UserResponseDto;
 import com.example.tasksmanager.exceptions.ErrorCreateTaskException;
 import com.example.tasksmanager.exceptions.ErrorDeleteTaskException;
 import com.example.tasksmanager.exceptions.ErrorEditTaskException;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
+import com.example.tasksmanager.service.impl.TaskChangeFeed;
+import com.example.tasksmanager.service.impl.TaskExporter;
+import com.example.tasksmanager.service.impl.TaskFileFormat;
+import com.example.tasksmanager.service.impl.TaskImporter;
 import com.example.tasksmanager.service.impl.TaskServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,16 +26,23 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller for managing tasks in the Task Manager application.
@@ -33,14 +51,20 @@ import java.util.List;
 @RequestMapping("/api/task")
 @Tag(name = "Task Manager Controller")
 public class TaskController {
+    /** Lets clients keep the task lists, but only for the same user and only after revalidating the ETag */
+    private static final CacheControl TASK_LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
-    private final TaskServiceImpl taskService;
 
-    SecurityContextHolderStrategy strategy =
-            SecurityContextHolder.getContextHolderStrategy();
+    private final TaskServiceImpl taskService;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskExporter taskExporter;
+    private final TaskImporter taskImporter;
 
-    public TaskController(TaskServiceImpl taskService) {
+    public TaskController(TaskServiceImpl taskService, TaskChangeFeed taskChangeFeed, TaskExporter taskExporter, TaskImporter taskImporter) {
         this.taskService = taskService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskExporter = taskExporter;
+        this.taskImporter = taskImporter;
     }
 
 
@@ -72,13 +96,45 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @PostMapping("/create")
-    public ResponseEntity<String> create(@RequestBody CreateTaskDto createTuskDto) throws ErrorCreateTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.create(createTuskDto, username);
+    public ResponseEntity<String> create(@RequestBody CreateTaskDto createTuskDto, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorCreateTaskException {
+        taskService.create(createTuskDto, user);
         return new ResponseEntity<>("Task created!", HttpStatus.CREATED);
     }
 
 
+    /**
+     * Creates a batch of tasks for the authenticated user.
+     *
+     * @param createTaskDtos the data transfer objects containing the details of the tasks (at most 1000)
+     * @return ResponseEntity with the result of creating every task
+     * @throws ErrorCreateTaskException if it was not possible to create the tasks
+     */
+    @Operation(
+            summary = "Create tasks",
+            description = "Creates a batch of tasks for an authenticated user and reports the result for every task",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Too many tasks in the batch",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchTaskResultDto>> createBatch(@RequestBody @Size(min = 1, max = 1000) List<CreateTaskDto> createTaskDtos,
+                                                                @AuthenticationPrincipal AuthenticatedUser user) throws ErrorCreateTaskException {
+        return new ResponseEntity<>(taskService.createBatch(createTaskDtos, user), HttpStatus.OK);
+    }
+
+
     /**
      * Deletes a task by its title for the authenticated user.
      *
@@ -110,15 +166,79 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @DeleteMapping("/delete/{title}")
-    public ResponseEntity<String> delete(@PathVariable String title) throws ErrorDeleteTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.delete(title,username);
+    public ResponseEntity<String> delete(@PathVariable String title, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorDeleteTaskException {
+        taskService.delete(title, user);
         return new ResponseEntity<>("Task deleted!", HttpStatus.OK);
     }
 
 
+    /**
+     * Deletes the selected tasks of the authenticated user.
+     *
+     * @param request the titles of the tasks, or all tasks of the user
+     * @return a ResponseEntity with the number of deleted tasks
+     */
+    @Operation(
+            summary = "Delete tasks",
+            description = "Deletes the listed tasks or all tasks of an authenticated user. Tasks of other users are skipped",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect input data",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<String> bulkDelete(@RequestBody BulkTaskRequestDto request, @AuthenticationPrincipal AuthenticatedUser user) {
+        int deleted = taskService.bulkDelete(request, user);
+        return new ResponseEntity<>(deleted + " tasks deleted!", HttpStatus.OK);
+    }
+
+    /**
+     * Assigns the selected tasks of the authenticated user to another user.
+     *
+     * @param request the titles of the tasks, or all tasks of the user, and the username of the new user
+     * @return a ResponseEntity with the number of reassigned tasks
+     */
+    @Operation(
+            summary = "Reassign tasks",
+            description = "Assigns the listed tasks or all tasks of an authenticated user to another user. Tasks of other users are skipped",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect input data",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @PostMapping("/bulk/reassign")
+    public ResponseEntity<String> bulkReassign(@RequestBody BulkTaskRequestDto request, @AuthenticationPrincipal AuthenticatedUser user) {
+        int reassigned = taskService.bulkReassign(request, user);
+        return new ResponseEntity<>(reassigned + " tasks reassigned!", HttpStatus.OK);
+    }
+
+
     /**
      * This method returns a list of tasks, with support for pagination via offset and limit parameters.
+     * The response carries the ETag of the user's tasks, and a matching If-None-Match is answered
+     * with 304 Not Modified without loading the tasks.
      *
      * @param offset the starting point for retrieving tasks (default is 0, minimum is 0)
      * @param limit  the maximum number of tasks to return (default is 20, minimum is 1, maximum is 100)
@@ -132,6 +252,10 @@ public class TaskController {
                             description = "Success",
                             responseCode = "200"
                     ),
+                    @ApiResponse(
+                            description = "Not modified since the ETag in If-None-Match",
+                            responseCode = "304"
+                    ),
                     @ApiResponse(
                             description = "Unauthorized",
                             responseCode = "401"
@@ -140,10 +264,340 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @GetMapping(value = "/show/myTasks", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<TaskResponseDto> showMyTusks(@RequestParam(value = "offset", defaultValue = "0") @Min(0) Integer offset,
-                                             @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit){
-        String username = strategy.getContext().getAuthentication().getName();
-        return taskService.showMyTasks(username, limit, offset);
+    public ResponseEntity<List<TaskResponseDto>> showMyTusks(@RequestParam(value = "offset", defaultValue = "0") @Min(0) Integer offset,
+                                                             @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit,
+                                                             @AuthenticationPrincipal AuthenticatedUser user,
+                                                             WebRequest request){
+        String eTag = taskService.tasksETag(user);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(TASK_LIST_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(TASK_LIST_CACHE_CONTROL).body(taskService.showMyTasks(user, limit, offset));
+    }
+
+    /**
+     * This method returns a page of tasks ordered by date, starting after the given cursor.
+     * Used instead of the offset pagination when the "after" parameter is present.
+     * Supports the same ETag and If-None-Match handling as the offset pagination.
+     *
+     * @param after the cursor returned with the previous page, empty for the first page
+     * @param limit the maximum number of tasks to return (default is 20, minimum is 1, maximum is 100)
+     * @return a {@link TaskSliceDto} with the tasks and the cursor of the next page
+     */
+    @Operation(
+            summary = "Show my tasks after cursor",
+            description = "Lists the tasks of an authenticated user ordered by date, page by page. " +
+                    "Pass an empty 'after' for the first page and the returned 'nextCursor' for the next ones",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Not modified since the ETag in If-None-Match",
+                            responseCode = "304"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect cursor",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/show/myTasks", params = "after", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskSliceDto> showMyTasksAfter(@RequestParam(value = "after") String after,
+                                                         @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit,
+                                                         @AuthenticationPrincipal AuthenticatedUser user,
+                                                         WebRequest request){
+        String eTag = taskService.tasksETag(user);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(TASK_LIST_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(TASK_LIST_CACHE_CONTROL).body(taskService.showMyTasksAfter(user, limit, after));
+    }
+
+
+    /**
+     * This method returns a page of tasks with deadlines in the given range, ordered by date.
+     *
+     * @param from  the earliest deadline in the format yyyy-MM-dd, inclusive
+     * @param to    the latest deadline in the format yyyy-MM-dd, inclusive
+     * @param after the cursor returned with the previous page, empty for the first page
+     * @param limit the maximum number of tasks to return (default is 20, minimum is 1, maximum is 100)
+     * @return a {@link TaskSliceDto} with the tasks and the cursor of the next page
+     */
+    @Operation(
+            summary = "Show my tasks due in a range",
+            description = "Lists the tasks of an authenticated user with deadlines between 'from' and 'to', ordered by date. " +
+                    "Pass the returned 'nextCursor' as 'after' to load the next page",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Empty range or incorrect cursor",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/due", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TaskSliceDto showDueTasks(@RequestParam("from") @DateTimeFormat(pattern="yyyy-MM-dd") @Parameter(description = "Earliest deadline in the format yyyy-MM-dd.") Date from,
+                                     @RequestParam("to") @DateTimeFormat(pattern="yyyy-MM-dd") @Parameter(description = "Latest deadline in the format yyyy-MM-dd.") Date to,
+                                     @RequestParam(value = "after", required = false) String after,
+                                     @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit,
+                                     @AuthenticationPrincipal AuthenticatedUser user) {
+        return taskService.showDueTasks(user, new java.sql.Date(from.getTime()), new java.sql.Date(to.getTime()), limit, after);
+    }
+
+    /**
+     * This method returns a page of tasks whose deadline has passed, oldest first.
+     *
+     * @param after the cursor returned with the previous page, empty for the first page
+     * @param limit the maximum number of tasks to return (default is 20, minimum is 1, maximum is 100)
+     * @return a {@link TaskSliceDto} with the tasks and the cursor of the next page
+     */
+    @Operation(
+            summary = "Show my overdue tasks",
+            description = "Lists the tasks of an authenticated user with deadlines before today, oldest first. " +
+                    "Pass the returned 'nextCursor' as 'after' to load the next page",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect cursor",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/overdue", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TaskSliceDto showOverdueTasks(@RequestParam(value = "after", required = false) String after,
+                                         @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit,
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
+        return taskService.showOverdueTasks(user, limit, after);
+    }
+
+    /**
+     * This method returns the nearest deadlines of the tasks, starting today.
+     *
+     * @param after the cursor returned with the previous page, empty for the first page
+     * @param limit the number of deadlines to return (default is 10, minimum is 1, maximum is 100)
+     * @return a {@link TaskSliceDto} with the tasks and the cursor of the next page
+     */
+    @Operation(
+            summary = "Show my upcoming deadlines",
+            description = "Lists the next tasks of an authenticated user with deadlines from today on, nearest first. " +
+                    "Pass the returned 'nextCursor' as 'after' to load the next page",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect cursor",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/upcoming", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TaskSliceDto showUpcomingTasks(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "limit", defaultValue = "10") @Min(1) @Max(100) Integer limit,
+                                          @AuthenticationPrincipal AuthenticatedUser user) {
+        return taskService.showUpcomingTasks(user, limit, after);
+    }
+
+    /**
+     * This method searches the tasks of the authenticated user by the words of their titles and descriptions.
+     * The best matches come first, and the pages are loaded with a cursor like {@link #showMyTasksAfter}.
+     *
+     * @param query the words to search for, in the web search syntax
+     * @param after the cursor returned with the previous page, empty for the first page
+     * @param limit the maximum number of tasks to return (default is 20, minimum is 1, maximum is 100)
+     * @return a {@link TaskSliceDto} with the found tasks and the cursor of the next page
+     */
+    @Operation(
+            summary = "Search my tasks",
+            description = "Finds the tasks of an authenticated user whose title or description contain the words of the query, " +
+                    "best matches first. Supports \"quoted phrases\", 'or' and -excluded words. " +
+                    "Pass the returned 'nextCursor' as 'after' to load the next page",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Blank query or incorrect cursor",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TaskSliceDto search(@RequestParam(value = "q") String query,
+                               @RequestParam(value = "after", required = false) String after,
+                               @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) Integer limit,
+                               @AuthenticationPrincipal AuthenticatedUser user) {
+        return taskService.searchMyTasks(user, query, limit, after);
+    }
+
+    /**
+     * Exports all tasks of the authenticated user, streaming them while they are read from the database.
+     *
+     * @param format the format of the export, ndjson or csv
+     * @return a ResponseEntity streaming the exported tasks as an attachment
+     */
+    @Operation(
+            summary = "Export my tasks",
+            description = "Streams all tasks of an authenticated user as NDJSON or CSV, ordered by date",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unsupported format",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                        @AuthenticationPrincipal AuthenticatedUser user) {
+        TaskFileFormat exportFormat = TaskFileFormat.of(format);
+        Long userId = user.getId();
+        StreamingResponseBody body = out -> taskExporter.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Imports the tasks of a CSV or NDJSON file streamed in the request body. Available to administrators only.
+     *
+     * @param format the format of the file, ndjson or csv
+     * @param body   the content of the file
+     * @return a ResponseEntity with the numbers of imported and skipped records and the id of the error report
+     */
+    @Operation(
+            summary = "Import tasks",
+            description = "Imports tasks of any user from a CSV file with the columns title, description, date and user, " +
+                    "or an NDJSON file with these fields. The user is a username or an email. " +
+                    "Records with incorrect data, unknown users or taken titles are skipped and listed in the error report",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unsupported format or unreadable file",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    ),
+                    @ApiResponse(
+                            description = "Forbidden",
+                            responseCode = "403"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskImportResultDto> importTasks(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                           InputStream body) {
+        return ResponseEntity.ok(taskImporter.importTasks(body, TaskFileFormat.of(format)));
+    }
+
+    /**
+     * Downloads the error report of an import. Available to administrators only.
+     *
+     * @param importId the id of the import
+     * @return a ResponseEntity streaming the skipped records with the reasons as CSV
+     */
+    @Operation(
+            summary = "Download import errors",
+            description = "Streams the records skipped by an import, with the reasons, as CSV",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    ),
+                    @ApiResponse(
+                            description = "Forbidden",
+                            responseCode = "403"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping("/import/{importId}/errors")
+    public ResponseEntity<StreamingResponseBody> importErrors(@PathVariable UUID importId) {
+        StreamingResponseBody body = out -> taskImporter.writeReport(importId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TaskFileFormat.CSV.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + importId + "-errors.csv\"")
+                .body(body);
+    }
+
+    /**
+     * Streams the changes of the tasks of the authenticated user as Server-Sent Events.
+     * Every event is named after the kind of the change and carries a {@link TaskChangeDto}.
+     *
+     * @return the {@link SseEmitter} the changes are sent to
+     */
+    @Operation(
+            summary = "Stream my task changes",
+            description = "Pushes created, updated, reassigned and deleted tasks of an authenticated user as Server-Sent Events",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Unauthorized",
+                            responseCode = "401"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal AuthenticatedUser user) {
+        return taskChangeFeed.subscribe(user.getId());
     }
 
 
@@ -175,9 +629,8 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @PatchMapping("/edit/{title}/title")
-    public ResponseEntity<String> editTitle(@PathVariable String title, @RequestParam String newTitle) throws ErrorEditTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.editTitle(title,newTitle,username);
+    public ResponseEntity<String> editTitle(@PathVariable String title, @RequestParam String newTitle, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorEditTaskException {
+        taskService.editTitle(title, newTitle, user);
         return new ResponseEntity<>("Title changed!", HttpStatus.OK);
     }
 
@@ -209,9 +662,8 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @PatchMapping("/edit/{title}/description")
-    public ResponseEntity<String> editDescription(@PathVariable String title, @RequestParam String newDescription) throws ErrorEditTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.editDescription(title, newDescription, username);
+    public ResponseEntity<String> editDescription(@PathVariable String title, @RequestParam String newDescription, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorEditTaskException {
+        taskService.editDescription(title, newDescription, user);
         return new ResponseEntity<>("Description changed!", HttpStatus.OK);
     }
 
@@ -243,9 +695,8 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @PatchMapping("/edit/{title}/Date")
-    public ResponseEntity<String> editDate(@PathVariable String title, @RequestParam("Date") @DateTimeFormat(pattern="yyyy-MM-dd") @Parameter(description = "New deadline for the task in the format yyyy-MM-dd.")Date newDate) throws ErrorEditTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.editDate(title, new java.sql.Date(newDate.getTime()),username);
+    public ResponseEntity<String> editDate(@PathVariable String title, @RequestParam("Date") @DateTimeFormat(pattern="yyyy-MM-dd") @Parameter(description = "New deadline for the task in the format yyyy-MM-dd.")Date newDate, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorEditTaskException {
+        taskService.editDate(title, new java.sql.Date(newDate.getTime()), user);
         return new ResponseEntity<>("Date changed!", HttpStatus.OK);
     }
 
@@ -278,11 +729,41 @@ public class TaskController {
     )
     @SecurityRequirement(name = "Bearer Auth")
     @PatchMapping("/edit/{title}/User")
-    public ResponseEntity<String> editUser(@PathVariable String title, @RequestParam String newUser) throws ErrorEditTaskException {
-        String username = strategy.getContext().getAuthentication().getName();
-        taskService.editUser(title, newUser,username);
+    public ResponseEntity<String> editUser(@PathVariable String title, @RequestParam String newUser, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorEditTaskException {
+        taskService.editUser(title, newUser, user);
         return new ResponseEntity<>("User changed!", HttpStatus.OK);
     }
 
-
+    /**
+     * Changes several fields of an existing task at once.
+     *
+     * @param title the title of the task
+     * @param patch the fields to change, fields that are not set are left unchanged
+     * @return a ResponseEntity with a success message
+     * @throws ErrorEditTaskException if it was not possible to update  a task
+     */
+    @Operation(
+            summary = "Edit task",
+            description = "Changes the title, description, date and executor of the task in one request, fields that are not set are left unchanged",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200"
+                    ),
+                    @ApiResponse(
+                            description = "Incorrect input data",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "You do not have permission to change task",
+                            responseCode = "403"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "Bearer Auth")
+    @PatchMapping("/{title}")
+    public ResponseEntity<String> patch(@PathVariable String title, @RequestBody PatchTaskDto patch, @AuthenticationPrincipal AuthenticatedUser user) throws ErrorEditTaskException {
+        taskService.patch(title, patch, user);
+        return new ResponseEntity<>("Task changed!", HttpStatus.OK);
+    }
 }
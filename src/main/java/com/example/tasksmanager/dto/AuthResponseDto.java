@@ -0,0 +1,24 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO for representing the tokens issued to an authenticated user
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "DTO for representing the tokens issued to an authenticated user")
+public class AuthResponseDto {
+
+    /** The short-lived JWT token used for subsequent requests */
+    private String accessToken;
+
+    /** The long-lived token exchanged for a new access token once it expires */
+    private String refreshToken;
+
+    /** The lifetime of the access token, in seconds */
+    @Schema(description = "The lifetime of the access token, in seconds")
+    private long expiresIn;
+}
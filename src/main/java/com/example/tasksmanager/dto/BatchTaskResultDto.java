@@ -0,0 +1,35 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO for representing the result of creating one task of a batch
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "DTO for representing the result of creating one task of a batch")
+public class BatchTaskResultDto {
+
+    /** The title of the task */
+    private String title;
+
+    /** The result of creating the task */
+    private Status status;
+
+    /** The reason the task was not created, or null if it was created */
+    private String message;
+
+    /**
+     * Possible results of creating a task of a batch.
+     */
+    public enum Status {
+        /** The task was created */
+        CREATED,
+        /** A task with the same title already exists or appears earlier in the batch */
+        DUPLICATE,
+        /** The task data is incorrect */
+        INVALID
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for selecting the tasks of a bulk operation.
+ * Either the titles of the tasks are listed, or all tasks of the user are selected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for selecting the tasks of a bulk operation, either by titles or all tasks of the user")
+public class BulkTaskRequestDto {
+
+    /** The titles of the tasks. */
+    private List<String> titles;
+
+    /** If true, all tasks of the user are selected instead of the listed titles. */
+    @Schema(description = "Select all tasks of the authenticated user instead of the listed titles")
+    private boolean all;
+
+    /** The username of the user to whom the tasks will be assigned, used only by the reassign operation. */
+    @Schema(description = "Username of the user to whom the tasks will be assigned, required for reassign")
+    private String newUser;
+}
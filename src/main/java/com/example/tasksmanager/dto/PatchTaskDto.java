@@ -0,0 +1,33 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Date;
+
+/**
+ * DTO for changing several fields of a task at once.
+ * Fields that are not set are left unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for changing several fields of a task at once, fields that are not set are left unchanged")
+public class PatchTaskDto {
+
+    /** The new title of the task. */
+    private String title;
+
+    /** The new description of the task. */
+    private String description;
+
+    /** The new deadline for the task in the format yyyy-MM-dd */
+    @Schema(description = "New deadline for the task in the format yyyy-MM-dd")
+    private Date date;
+
+    /** The username of the user to whom the task will be assigned */
+    @Schema(description = "Username of the user to whom the task will be assigned")
+    private String user;
+}
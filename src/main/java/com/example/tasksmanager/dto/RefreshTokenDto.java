@@ -0,0 +1,19 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for refreshing or revoking the tokens of a user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for refreshing or revoking the tokens of a user")
+public class RefreshTokenDto {
+
+    /** The refresh token returned with the previous tokens. */
+    private String refreshToken;
+}
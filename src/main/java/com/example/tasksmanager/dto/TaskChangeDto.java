@@ -0,0 +1,24 @@
+package com.example.tasksmanager.dto;
+
+import com.example.tasksmanager.event.TaskChangedEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for representing a change of tasks sent to the change feed
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "DTO for representing a change of tasks sent to the change feed")
+public class TaskChangeDto {
+
+    /** The kind of the change */
+    private TaskChangedEvent.Type type;
+
+    /** The titles of the changed tasks. */
+    @Schema(description = "The titles of the changed tasks, empty if all tasks of the user were changed.")
+    private List<String> titles;
+}
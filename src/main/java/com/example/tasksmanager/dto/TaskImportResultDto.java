@@ -0,0 +1,31 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * DTO for representing the result of importing a file of tasks
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "DTO for representing the result of importing a file of tasks")
+public class TaskImportResultDto {
+
+    /** The identifier of the import, used to download the error report */
+    private UUID importId;
+
+    /** The number of records in the file */
+    private long total;
+
+    /** The number of created tasks */
+    private long imported;
+
+    /** The number of records whose title already exists or appears earlier in the file */
+    private long duplicates;
+
+    /** The number of records with incorrect data or an unknown user */
+    private long invalid;
+}
@@ -0,0 +1,10 @@
+package com.example.tasksmanager.dto;
+
+/**
+ * Projection of a task found by a full-text search, with the rank of the match.
+ */
+public interface TaskSearchView extends TaskView {
+
+    /** The rank of the match, higher is better, used to build the cursor of the next page. */
+    Float getRank();
+}
@@ -0,0 +1,23 @@
+package com.example.tasksmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for representing one page of tasks loaded with a cursor
+ */
+@Data
+@AllArgsConstructor
+@Schema(description = "DTO for representing one page of tasks loaded with a cursor")
+public class TaskSliceDto {
+
+    /** The tasks of the page. */
+    private List<TaskResponseDto> tasks;
+
+    /** The cursor of the next page, or null if this is the last page. */
+    @Schema(description = "Cursor to pass as 'after' to load the next page, null if this is the last page")
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.example.tasksmanager.dto;
+
+import java.sql.Date;
+
+/**
+ * Projection of a task with only the columns needed to list tasks page by page.
+ */
+public interface TaskView {
+
+    /** The id of the task, used to build the cursor of the next page. */
+    Integer getId();
+
+    /** The title of the task */
+    String getTitle();
+
+    /** The description of the task. */
+    String getDescription();
+
+    /** Deadline for the task. */
+    Date getDate();
+}
@@ -0,0 +1,294 @@
+package com.example.tasksmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares the task and user changes and the token revocations between the nodes of the cluster over Postgres LISTEN/NOTIFY.
+ * Changes committed on this node are sent as a compact {@link ClusterMessage} with {@code pg_notify}
+ * from a single background thread, so the requests do not wait for it.
+ * Every node listens on one dedicated connection outside the pool and publishes the changes
+ * of the other nodes as local events marked as remote, which are never sent again.
+ * If the listening connection breaks, changes may have been missed, so a {@link ClusterResyncEvent}
+ * is published after reconnecting.
+ * The lag of the received messages and the dropped messages are published as "cluster.notify.lag"
+ * and "cluster.notify.dropped".
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "tasks.cluster.enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterEventBus {
+
+    /** Postgres rejects payloads of 8000 bytes and more */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final String node = UUID.randomUUID().toString();
+    private final DataSource dataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor sender;
+    private final Timer lag;
+    private final Counter dropped;
+    private final String channel;
+    private final int pollTimeout;
+    private final long reconnectDelay;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterEventBus(DataSource dataSource,
+                           DataSourceProperties dataSourceProperties,
+                           ApplicationEventPublisher eventPublisher,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${tasks.cluster.channel:tasksmanager_events}") String channel,
+                           @Value("${tasks.cluster.queue-size:10000}") int queueSize,
+                           @Value("${tasks.cluster.poll-timeout:10000}") int pollTimeout,
+                           @Value("${tasks.cluster.reconnect-delay:5000}") long reconnectDelay) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Incorrect cluster channel name '" + channel + "'");
+        }
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("cluster-notify-"));
+        this.lag = meterRegistry.timer("cluster.notify.lag");
+        this.dropped = meterRegistry.counter("cluster.notify.dropped");
+    }
+
+    /**
+     * Starts listening for the changes of the other nodes.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cluster-listen");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * Stops listening and sending.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+        sender.shutdown();
+    }
+
+    /**
+     * Sends a task change made on this node to the other nodes, after the change is committed.
+     *
+     * @param event The {@link TaskChangedEvent} of the changed tasks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!event.isRemote()) {
+            send(new ClusterMessage(node, ClusterMessage.Kind.TASK, System.currentTimeMillis(), event.getType(),
+                    event.getTitles(), event.getUserId(), event.getNewUserId(), null, null, null));
+        }
+    }
+
+    /**
+     * Sends a user change made on this node to the other nodes, after the change is committed.
+     *
+     * @param event The {@link UserChangedEvent} of the changed user.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote()) {
+            send(new ClusterMessage(node, ClusterMessage.Kind.USER, System.currentTimeMillis(), null,
+                    null, event.getUserId(), null, event.getEmail(), null, null));
+        }
+    }
+
+    /**
+     * Sends a token revocation made on this node to the other nodes, after it is committed.
+     *
+     * @param event The {@link TokenRevokedEvent} of the revoked token.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (!event.isRemote()) {
+            send(new ClusterMessage(node, ClusterMessage.Kind.TOKEN, System.currentTimeMillis(), null,
+                    null, null, null, null, event.getJti(), event.getExpiresAt()));
+        }
+    }
+
+    /**
+     * Queues a message for sending. The message is dropped if the queue is full.
+     *
+     * @param message The message to send.
+     */
+    private void send(ClusterMessage message) {
+        String payload;
+        try {
+            payload = toPayload(message);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize cluster message", e);
+            dropped.increment();
+            return;
+        }
+
+        try {
+            sender.execute(() -> sendNow(payload));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropping cluster message, the send queue is full");
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Serializes the message, leaving out the titles if the message does not fit into a notification.
+     *
+     * @param message The message to serialize.
+     * @return The JSON payload.
+     */
+    private String toPayload(ClusterMessage message) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(message);
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            message.setTitles(Collections.emptyList());
+            payload = objectMapper.writeValueAsString(message);
+        }
+        return payload;
+    }
+
+    /**
+     * Sends a payload with {@code pg_notify} over a pooled connection.
+     *
+     * @param payload The JSON payload.
+     */
+    private void sendNow(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Failed to send cluster message", e);
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Listens for the changes of the other nodes until the bus is stopped, reconnecting when the connection breaks.
+     */
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                if (connectedBefore) {
+                    log.info("Reconnected to cluster channel '{}', dropping cached users and tasks", channel);
+                    eventPublisher.publishEvent(new ClusterResyncEvent());
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications == null || notifications.length == 0) {
+                        // detects a broken connection while no changes arrive
+                        statement.execute("select 1");
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster channel '{}' connection failed, reconnecting", channel, e);
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the dedicated listening connection, outside the pool so it is never handed to a request.
+     *
+     * @return The new connection.
+     */
+    protected Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    /**
+     * Publishes a change received from another node as a local event.
+     * Messages sent by this node are skipped, since the change was already applied locally.
+     *
+     * @param payload The JSON payload of the notification.
+     */
+    private void receive(String payload) {
+        ClusterMessage message;
+        try {
+            message = objectMapper.readValue(payload, ClusterMessage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping incorrect cluster message '{}'", payload);
+            dropped.increment();
+            return;
+        }
+        if (node.equals(message.getNode())) {
+            return;
+        }
+
+        lag.record(Math.max(0, System.currentTimeMillis() - message.getSentAt()), TimeUnit.MILLISECONDS);
+        try {
+            if (message.getKind() == ClusterMessage.Kind.TASK) {
+                eventPublisher.publishEvent(new TaskChangedEvent(message.getType(),
+                        message.getTitles() == null ? Collections.emptyList() : message.getTitles(),
+                        message.getUserId(), message.getNewUserId(), true));
+            } else if (message.getKind() == ClusterMessage.Kind.USER) {
+                eventPublisher.publishEvent(new UserChangedEvent(message.getUserId(), message.getEmail(), true));
+            } else if (message.getKind() == ClusterMessage.Kind.TOKEN) {
+                eventPublisher.publishEvent(new TokenRevokedEvent(message.getJti(), message.getExpiresAt(), true));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to apply cluster message '{}'", payload, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tasksmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Compact form of a {@link TaskChangedEvent}, {@link UserChangedEvent} or {@link TokenRevokedEvent} sent to the other nodes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClusterMessage {
+
+    /** Kinds of the sent events */
+    public enum Kind {
+        TASK, USER, TOKEN
+    }
+
+    /** Identifier of the node that sent the message */
+    private String node;
+
+    /** Kind of the sent event */
+    private Kind kind;
+
+    /** Time the message was sent, in milliseconds since the epoch */
+    private long sentAt;
+
+    /** Kind of the task change, only for task events */
+    private TaskChangedEvent.Type type;
+
+    /** Titles of the changed tasks, only for task events, empty if they did not fit into the message */
+    private List<String> titles;
+
+    /** Unique identifier of the changed user, or of the user the tasks were assigned to */
+    private Long userId;
+
+    /** Unique identifier of the user the tasks are assigned to after a reassignment */
+    private Long newUserId;
+
+    /** Email of the changed user, only for user events */
+    private String email;
+
+    /** Id of the revoked token, only for token events */
+    private String jti;
+
+    /** Time the revoked token expires at, in milliseconds since the epoch, only for token events */
+    private Long expiresAt;
+}
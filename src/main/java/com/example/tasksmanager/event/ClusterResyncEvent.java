@@ -0,0 +1,9 @@
+package com.example.tasksmanager.event;
+
+/**
+ * Event published when changes made on other nodes may have been missed,
+ * for example while the connection listening for them was broken.
+ * Listeners drop everything they keep in memory about users and tasks.
+ */
+public class ClusterResyncEvent {
+}
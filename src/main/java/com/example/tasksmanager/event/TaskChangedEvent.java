@@ -0,0 +1,54 @@
+package com.example.tasksmanager.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event published when tasks were created, changed, reassigned or deleted.
+ * Listeners use it to drop the data they keep in memory about the tasks of the affected users.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    /** Kinds of task changes */
+    public enum Type {
+        CREATED, UPDATED, REASSIGNED, DELETED
+    }
+
+    /** Kind of the change */
+    private final Type type;
+
+    /** Titles of the changed tasks, the new title for renamed tasks, empty if all tasks of the user were changed */
+    private final List<String> titles;
+
+    /** Unique identifier of the user the tasks were assigned to before the change */
+    private final Long userId;
+
+    /** Unique identifier of the user the tasks are assigned to after a reassignment, otherwise {@code null} */
+    private final Long newUserId;
+
+    /** Whether the change was made on another node and received over the cluster bus */
+    private final boolean remote;
+
+    public TaskChangedEvent(Type type, List<String> titles, Long userId, Long newUserId) {
+        this(type, titles, userId, newUserId, false);
+    }
+
+    /**
+     * Returns the users whose tasks were changed.
+     *
+     * @return The previous owner, and the new owner if the tasks were reassigned.
+     */
+    public List<Long> getUserIds() {
+        List<Long> userIds = new ArrayList<>();
+        userIds.add(userId);
+        if (newUserId != null && !newUserId.equals(userId)) {
+            userIds.add(newUserId);
+        }
+        return userIds;
+    }
+}
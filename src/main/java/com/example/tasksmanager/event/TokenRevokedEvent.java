@@ -0,0 +1,26 @@
+package com.example.tasksmanager.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a JWT token was revoked before it expired.
+ * Listeners use it to share the revocation with the other nodes.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenRevokedEvent {
+
+    /** The id ("jti" claim) of the revoked token */
+    private final String jti;
+
+    /** Time the revoked token expires at, in milliseconds since the epoch */
+    private final long expiresAt;
+
+    /** Whether the token was revoked on another node and received over the cluster bus */
+    private final boolean remote;
+
+    public TokenRevokedEvent(String jti, long expiresAt) {
+        this(jti, expiresAt, false);
+    }
+}
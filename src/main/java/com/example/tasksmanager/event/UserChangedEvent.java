@@ -0,0 +1,26 @@
+package com.example.tasksmanager.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a user or the user's roles were created or changed.
+ * Listeners use it to drop the data they keep in memory about the user.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    /** Unique identifier of the changed user */
+    private final Long userId;
+
+    /** Email of the changed user */
+    private final String email;
+
+    /** Whether the change was made on another node and received over the cluster bus */
+    private final boolean remote;
+
+    public UserChangedEvent(Long userId, String email) {
+        this(userId, email, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.tasksmanager.exceptions;
+
+public class ErrorServiceBusyException extends IllegalStateException {
+    public ErrorServiceBusyException(String msg) {
+        super(msg);
+    }
+}
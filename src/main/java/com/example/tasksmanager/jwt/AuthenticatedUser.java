@@ -0,0 +1,27 @@
+package com.example.tasksmanager.jwt;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The principal of an authenticated user.
+ * In addition to the email and authorities it carries the id of the user and the version of the user's roles.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    /** Unique identifier of the user */
+    private final Long id;
+
+    /** Version of the user's roles at the moment the principal was created */
+    private final int rolesVersion;
+
+    public AuthenticatedUser(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities, int rolesVersion) {
+        super(email, password, authorities);
+        this.id = id;
+        this.rolesVersion = rolesVersion;
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,6 +15,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.stream.Collectors;
 
 /**
  * This class is a Spring Security filter that processes JWT tokens for authentication.
@@ -21,18 +24,29 @@ import java.io.IOException;
  @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtGenerator tokenGenerator;
-    private final JwtUserDetailsService jwtUserDetailsService;
+    private final JwtTokenCache tokenCache;
+    private final UserDetailsCache userDetailsCache;
+    private final RolesVersionRegistry rolesVersionRegistry;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthenticationFilter(JwtGenerator tokenGenerator, JwtUserDetailsService jwtUserDetailsService) {
-        this.tokenGenerator = tokenGenerator;
-        this.jwtUserDetailsService = jwtUserDetailsService;
+    /** If enabled, the user is authenticated from the token claims without being loaded from the database. */
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(JwtTokenCache tokenCache, UserDetailsCache userDetailsCache, RolesVersionRegistry rolesVersionRegistry,
+                                   TokenDenylist tokenDenylist) {
+        this.tokenCache = tokenCache;
+        this.userDetailsCache = userDetailsCache;
+        this.rolesVersionRegistry = rolesVersionRegistry;
+        this.tokenDenylist = tokenDenylist;
     }
 
 
     /**
      * Filters the incoming HTTP request to extract and validate the JWT token. If the token is valid,
      * it sets the authentication context with the authenticated user details.
+     * Tokens are verified through the {@link JwtTokenCache}, so the signature of a token is checked only once,
+     * and the tokens revoked in the {@link TokenDenylist} are not authenticated.
      *
      * @param request the {@link HttpServletRequest} object that contains the request from the client
      * @param response the {@link HttpServletResponse} object used to send the response to the client
@@ -43,18 +57,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String token = getJWTFromRequest(request);
-        if (StringUtils.hasText(token) && tokenGenerator.validateToken(token)) {
-            String username = tokenGenerator.getEmailFromJWT(token);
+        if (StringUtils.hasText(token)) {
+            UserDetails userDetails = resolveUser(tokenCache.verify(token));
 
-            UserDetails userDetails = jwtUserDetailsService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails,
-                    null, userDetails.getAuthorities());
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails,
+                        null, userDetails.getAuthorities());
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolves the user of a verified token.
+     * In stateless mode the user is built from the token claims, as long as the roles version
+     * in the token is still the current one. Otherwise the user is taken from the {@link UserDetailsCache} by the email.
+     *
+     * @param token the verified JWT token
+     * @return the {@link UserDetails} of the user, or {@code null} if the token was revoked or the roles in it are outdated
+     */
+    private UserDetails resolveUser(VerifiedToken token) {
+        if (token.getJti() != null && tokenDenylist.isRevoked(token.getJti())) {
+            logger.debug("Token of user '" + token.getSubject() + "' was revoked");
+            return null;
+        }
+
+        if (!stateless || !token.isSelfContained()) {
+            return userDetailsCache.get(token.getSubject());
+        }
+
+        if (!rolesVersionRegistry.isCurrent(token.getUserId(), token.getRolesVersion())) {
+            logger.debug("Roles of user '" + token.getSubject() + "' changed after the token was issued");
+            return null;
+        }
+
+        return new AuthenticatedUser(token.getUserId(), token.getSubject(), "",
+                token.getRoles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()),
+                token.getRolesVersion());
+    }
+
     /**
      * Extracts the JWT token from the Authorization header of the HTTP request.
      *
@@ -1,33 +1,108 @@
 package com.example.tasksmanager.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
  /**
  * This class is responsible for generating, parsing, and validating JWT (JSON Web Tokens).
- * It uses the HS512 algorithm for signing the tokens.
+ * It uses the HS512 algorithm for signing the tokens, with the keys from {@link JwtKeyProperties}.
+ * New tokens are signed with the active key and carry its id in the "kid" header,
+ * so tokens signed with the other keys of the set keep verifying while the keys are rotated.
  */
 @Component
 public class JwtGenerator {
 
-     /** The signing key used to sign the JWT tokens. */
-    private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+     /** The claim holding the id of the user. */
+    public static final String CLAIM_USER_ID = "uid";
+
+     /** The claim holding the names of the user's roles. */
+    public static final String CLAIM_ROLES = "roles";
+
+     /** The claim holding the version of the user's roles. */
+    public static final String CLAIM_ROLES_VERSION = "rv";
+
+     /** The verification keys by key id, decoded once. */
+    private final Map<String, Key> keys = new HashMap<>();
+
+     /** The id of the key used to sign the JWT tokens. */
+    private final String activeKeyId;
+
+     /** The parser used to verify the JWT tokens, built once since it is immutable and thread-safe. */
+    private final JwtParser parser;
 
      /** The expiration time for the JWT tokens, in milliseconds. */
     @Value("${jwt.expiration}")
     private Long expiration;
 
+     /**
+      * Decodes the configured keys and checks that the active key is one of them.
+      *
+      * @param keyProperties the configured key set
+      * @throws IllegalStateException if no key or the active key is not configured, or a key is too short for HS512
+      */
+    public JwtGenerator(JwtKeyProperties keyProperties) {
+        if (keyProperties.getActiveKeyId() == null || keyProperties.getActiveKeyId().isBlank() || keyProperties.getSecrets().isEmpty()) {
+            throw new IllegalStateException("No JWT signing key is configured, set jwt.keys.active-key-id and jwt.keys.secrets.<id>");
+        }
+        keyProperties.getSecrets().forEach((keyId, secret) -> {
+            try {
+                keys.put(keyId, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+            } catch (RuntimeException ex) {
+                throw new IllegalStateException("JWT key '" + keyId + "' is incorrect", ex);
+            }
+        });
+        if (!keys.containsKey(keyProperties.getActiveKeyId())) {
+            throw new IllegalStateException("Active JWT key '" + keyProperties.getActiveKeyId() + "' is not configured");
+        }
+        this.activeKeyId = keyProperties.getActiveKeyId();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = header.getKeyId() == null ? null : keys.get(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key '" + header.getKeyId() + "'");
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+     /**
+      * Returns the lifetime of the generated tokens.
+      *
+      * @return the expiration time, in milliseconds
+      */
+    public long getExpiration() {
+        return expiration;
+    }
+
      /**
       * Generates a JWT token for the authenticated user.
+      * If the principal is an {@link AuthenticatedUser}, the token also carries the user id, the role names
+      * and the roles version, so that the request can be authenticated without loading the user.
       *
       * @param authentication the authentication object containing the user's details
       * @return a JWT token as a string
@@ -37,17 +112,46 @@ public class JwtGenerator {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + expiration);
 
-        String token = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
-                .setExpiration(expireDate)
-                .signWith(key, SignatureAlgorithm.HS512)
+                .setExpiration(expireDate);
+
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+            List<String> roles = user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLES, roles)
+                    .claim(CLAIM_ROLES_VERSION, user.getRolesVersion());
+        }
+
+        String token = builder
+                .signWith(keys.get(activeKeyId), SignatureAlgorithm.HS512)
                 .compact();
         System.out.println("New token :");
         System.out.println(token);
         return token;
     }
 
+     /**
+      * Verifies the signature and expiration of the given JWT token and returns its claims.
+      *
+      * @param token the JWT token
+      * @return the claims of the verified token
+      * @throws AuthenticationCredentialsNotFoundException if the token is expired or incorrect
+      */
+    public Claims parseToken(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (Exception ex) {
+            throw new AuthenticationCredentialsNotFoundException("JWT was exprired or incorrect", ex.fillInStackTrace());
+        }
+    }
+
      /**
       * Extracts the email from the given JWT token.
       *
@@ -55,12 +159,7 @@ public class JwtGenerator {
       * @return the email extracted from the token
       */
     public String getEmailFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseToken(token).getSubject();
     }
 
      /**
@@ -71,14 +170,7 @@ public class JwtGenerator {
       * @throws AuthenticationCredentialsNotFoundException if the token is expired or incorrect
       */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception ex) {
-            throw new AuthenticationCredentialsNotFoundException("JWT was exprired or incorrect", ex.fillInStackTrace());
-        }
+        parseToken(token);
+        return true;
     }
 }
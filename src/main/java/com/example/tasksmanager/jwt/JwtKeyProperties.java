@@ -0,0 +1,23 @@
+package com.example.tasksmanager.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The set of keys used to sign and verify the JWT tokens, shared by all nodes.
+ * To rotate the keys, add the new key to every node first, then make it the active one,
+ * and remove the old key once all tokens signed with it have expired.
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt.keys")
+public class JwtKeyProperties {
+
+    /** The id of the key used to sign new tokens, written into the "kid" header. */
+    private String activeKeyId;
+
+    /** The Base64 encoded HS512 secrets of at least 64 bytes, by key id. */
+    private Map<String, String> secrets = new LinkedHashMap<>();
+}
@@ -0,0 +1,124 @@
+package com.example.tasksmanager.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified JWT tokens.
+ * Tokens are keyed by their SHA-256 digest, so the raw tokens are never kept in memory,
+ * and every entry is evicted as soon as the token itself expires.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final JwtGenerator tokenGenerator;
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtTokenCache(JwtGenerator tokenGenerator, @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.tokenGenerator = tokenGenerator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * Returns the verified content of the given token, checking its signature only if
+     * the token has not been verified before.
+     *
+     * @param token the JWT token
+     * @return the {@link VerifiedToken} with the subject and expiration of the token
+     * @throws AuthenticationCredentialsNotFoundException if the token is expired or incorrect
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken verified = cache.getIfPresent(digest);
+        if (verified != null && verified.getExpiration().getTime() > System.currentTimeMillis()) {
+            return verified;
+        }
+
+        Claims claims = tokenGenerator.parseToken(token);
+        if (claims.getExpiration() == null) {
+            throw new AuthenticationCredentialsNotFoundException("JWT has no expiration");
+        }
+        verified = toVerifiedToken(claims);
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    /**
+     * Removes the given token from the cache, so that it is verified again on the next request.
+     *
+     * @param token the JWT token
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * Converts the claims of a verified token into a {@link VerifiedToken}.
+     *
+     * @param claims the claims of the token
+     * @return the {@link VerifiedToken}
+     */
+    @SuppressWarnings("unchecked")
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getExpiration(),
+                claims.get(JwtGenerator.CLAIM_USER_ID, Long.class),
+                claims.get(JwtGenerator.CLAIM_ROLES, List.class),
+                claims.get(JwtGenerator.CLAIM_ROLES_VERSION, Integer.class));
+    }
+
+    /**
+     * Calculates the SHA-256 digest of the token.
+     *
+     * @param token the JWT token
+     * @return the Base64 encoded digest
+     */
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Expires every cache entry at the expiration time of its token.
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            long millisLeft = token.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
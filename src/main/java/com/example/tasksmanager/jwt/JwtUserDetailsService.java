@@ -7,7 +7,6 @@ import com.example.tasksmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -36,14 +35,15 @@ public class JwtUserDetailsService implements UserDetailsService {
      * This method retrieves a {@link UserEntity} from the repository based on the provided email.
      *
      * @param email The email of the user to load.
-     * @return The {@link UserDetails} containing the user's email, password, and authorities.
+     * @return The {@link AuthenticatedUser} containing the user's id, email, password, authorities and roles version.
      * @throws UsernameNotFoundException If no user is found with the provided email.
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         UserEntity user = repository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return new User(user.getEmail(), user.getPassword(), mapRolesToAuthorities(user.getRoles()));
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(),
+                mapRolesToAuthorities(user.getRoles()), user.getRolesVersion());
     }
 
     /**
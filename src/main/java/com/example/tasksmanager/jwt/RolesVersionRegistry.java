@@ -0,0 +1,66 @@
+package com.example.tasksmanager.jwt;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.UserChangedEvent;
+import com.example.tasksmanager.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the current version of the roles of every active user in memory.
+ * Tokens carry the roles version they were issued with, so tokens issued before a change
+ * of the roles are rejected without loading the user on every request.
+ * The version is incremented by a trigger on user_roles, so changes made directly in the database count too.
+ * Such changes publish no event, so the cached versions expire after the configured time to live.
+ */
+@Component
+public class RolesVersionRegistry {
+
+    private final LoadingCache<Long, Integer> versions;
+
+    public RolesVersionRegistry(UserRepository userRepository,
+                                @Value("${jwt.roles-version.cache-size:100000}") long cacheSize,
+                                @Value("${jwt.roles-version.ttl:30000}") long ttl) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .build(userId -> userRepository.findRolesVersionById(userId).orElse(null));
+    }
+
+    /**
+     * Checks if the given roles version is the current one for the user.
+     *
+     * @param userId       The id of the user.
+     * @param rolesVersion The roles version written into the token.
+     * @return {@code true} if the user exists and the version is current, otherwise {@code false}.
+     */
+    public boolean isCurrent(Long userId, int rolesVersion) {
+        Integer current = versions.get(userId);
+        return current != null && current == rolesVersion;
+    }
+
+    /**
+     * Drops the cached version of a changed user after the change is committed.
+     *
+     * @param event The {@link UserChangedEvent} of the changed user.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.invalidate(event.getUserId());
+    }
+
+    /**
+     * Drops all cached versions when changes made on other nodes may have been missed.
+     *
+     * @param event The {@link ClusterResyncEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClusterResync(ClusterResyncEvent event) {
+        versions.invalidateAll();
+    }
+}
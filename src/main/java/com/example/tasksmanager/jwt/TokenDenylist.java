@@ -0,0 +1,155 @@
+package com.example.tasksmanager.jwt;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.TokenRevokedEvent;
+import com.example.tasksmanager.model.RevokedTokenEntity;
+import com.example.tasksmanager.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of the ids ("jti" claims) of the JWT tokens revoked before they expired.
+ * A {@link BloomFilter} answers the check for almost every token that was not revoked without a lookup,
+ * and only its positives are checked in the exact map. Entries are kept only until their token expires.
+ * Revocations are stored in the "revoked_tokens" table, so the denylist is rebuilt at startup,
+ * and are shared with the other nodes with {@link TokenRevokedEvent}.
+ * The number of revoked tokens is published as "jwt.denylist.size".
+ */
+@Component
+@Slf4j
+public class TokenDenylist {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final int expectedSize;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.denylist.expected-size:100000}") int expectedSize,
+                         @Value("${jwt.denylist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.expectedSize = expectedSize;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedSize, falsePositiveRate);
+        meterRegistry.gaugeMapSize("jwt.denylist.size", Collections.emptyList(), revoked);
+    }
+
+    /**
+     * Loads the revoked tokens that have not expired yet.
+     */
+    @PostConstruct
+    public void load() {
+        synchronized (lock) {
+            revoked.clear();
+            revokedTokenRepository.findByExpiresAtAfter(Instant.now())
+                    .forEach(token -> revoked.put(token.getJti(), token.getExpiresAt().toEpochMilli()));
+            rebuild();
+        }
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    /**
+     * Checks if the token with the given id was revoked.
+     *
+     * @param jti The id of the token.
+     * @return {@code true} if the token was revoked and has not expired yet.
+     */
+    public boolean isRevoked(String jti) {
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revokes the token with the given id until it expires.
+     *
+     * @param jti       The id of the token.
+     * @param expiresAt The time the token expires at, in milliseconds since the epoch.
+     */
+    @Transactional
+    public void revoke(String jti, long expiresAt) {
+        revokedTokenRepository.save(new RevokedTokenEntity(jti, Instant.ofEpochMilli(expiresAt)));
+        remember(jti, expiresAt);
+        eventPublisher.publishEvent(new TokenRevokedEvent(jti, expiresAt));
+    }
+
+    /**
+     * Drops the expired tokens from the denylist and from the table.
+     */
+    @Scheduled(fixedDelayString = "${jwt.denylist.cleanup-interval:600000}")
+    @Transactional
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            rebuild();
+        }
+        revokedTokenRepository.deleteExpiredBefore(Instant.ofEpochMilli(now));
+    }
+
+    /**
+     * Applies a revocation made on another node.
+     *
+     * @param event The {@link TokenRevokedEvent} of the revoked token.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (event.isRemote()) {
+            remember(event.getJti(), event.getExpiresAt());
+        }
+    }
+
+    /**
+     * Reloads the revoked tokens when revocations made on other nodes may have been missed.
+     *
+     * @param event The {@link ClusterResyncEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClusterResync(ClusterResyncEvent event) {
+        load();
+    }
+
+    /**
+     * Adds a revoked token to the map and the filter.
+     *
+     * @param jti       The id of the token.
+     * @param expiresAt The time the token expires at, in milliseconds since the epoch.
+     */
+    private void remember(String jti, long expiresAt) {
+        synchronized (lock) {
+            revoked.put(jti, expiresAt);
+            filter.add(jti);
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from the map, dropping the removed tokens from it.
+     * Must be called while holding the lock, so no revocation is added to the replaced filter only.
+     */
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedSize, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.tasksmanager.jwt;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of the users authenticated by {@link JwtAuthenticationFilter}, keyed by email.
+ * Entries are dropped when the user changes, when they are older than the TTL, or when the cache is full.
+ * Hit, miss and eviction metrics are published under the "users.details" cache name.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final JwtUserDetailsService jwtUserDetailsService;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserDetailsCache(JwtUserDetailsService jwtUserDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.user-cache.max-size:10000}") long maxSize,
+                            @Value("${jwt.user-cache.ttl:300000}") long ttl) {
+        this.jwtUserDetailsService = jwtUserDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.details");
+    }
+
+    /**
+     * Returns the user with the given email, loading it only if it is not cached.
+     *
+     * @param email The email of the user.
+     * @return The {@link AuthenticatedUser} without the password.
+     * @throws UsernameNotFoundException If no user is found with the provided email.
+     */
+    public AuthenticatedUser get(String email) {
+        return cache.get(email, this::load);
+    }
+
+    /**
+     * Loads the user and drops the password from it, since the cached users are only used
+     * to authenticate requests that carry an already verified token.
+     *
+     * @param email The email of the user.
+     * @return The {@link AuthenticatedUser} without the password.
+     */
+    private AuthenticatedUser load(String email) {
+        AuthenticatedUser user = (AuthenticatedUser) jwtUserDetailsService.loadUserByUsername(email);
+        return new AuthenticatedUser(user.getId(), user.getUsername(), "", user.getAuthorities(), user.getRolesVersion());
+    }
+
+    /**
+     * Drops a changed user from the cache after the change is committed.
+     *
+     * @param event The {@link UserChangedEvent} of the changed user.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.invalidate(event.getEmail());
+    }
+
+    /**
+     * Drops all users when changes made on other nodes may have been missed.
+     *
+     * @param event The {@link ClusterResyncEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClusterResync(ClusterResyncEvent event) {
+        cache.invalidateAll();
+    }
+}
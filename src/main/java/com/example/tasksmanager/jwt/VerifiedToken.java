@@ -0,0 +1,43 @@
+package com.example.tasksmanager.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The result of a successful JWT verification, kept by {@link JwtTokenCache}
+ * so that the signature of the same token is not checked on every request.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    /** The id ("jti" claim) of the token, or {@code null} if the token does not carry it */
+    private final String jti;
+
+    /** The subject (email) of the token */
+    private final String subject;
+
+    /** The moment the token expires */
+    private final Date expiration;
+
+    /** The id of the user, or {@code null} if the token does not carry it */
+    private final Long userId;
+
+    /** The names of the user's roles, or {@code null} if the token does not carry them */
+    private final List<String> roles;
+
+    /** The version of the user's roles, or {@code null} if the token does not carry it */
+    private final Integer rolesVersion;
+
+    /**
+     * Checks if the token carries everything needed to authenticate the user without loading it.
+     *
+     * @return {@code true} if the user id, the roles and the roles version are present
+     */
+    public boolean isSelfContained() {
+        return userId != null && roles != null && rolesVersion != null;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.tasksmanager.mapper;
 import com.example.tasksmanager.dto.CreateTaskDto;
 import com.example.tasksmanager.dto.RegisterDto;
 import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.dto.TaskView;
 import com.example.tasksmanager.dto.UserResponseDto;
 import com.example.tasksmanager.model.TaskEntity;
 import com.example.tasksmanager.model.UserEntity;
@@ -34,4 +35,12 @@ public interface TaskMapper {
      * @return a list of TaskResponseDto populated with data from the given entities
      */
     List<TaskResponseDto> toListTaskResponseDto(List<TaskEntity> taskEntities);
+
+    /**
+     * Converts a list of {@link TaskView} to a list of {@link TaskResponseDto}.
+     *
+     * @param taskViews the list of TaskView projections to be converted
+     * @return a list of TaskResponseDto populated with data from the given projections
+     */
+    List<TaskResponseDto> toListTaskResponseDtoFromViews(List<TaskView> taskViews);
 }
@@ -0,0 +1,50 @@
+package com.example.tasksmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents a refresh token entity.
+ * Only the SHA-256 hash of the token is stored. Tokens issued by rotating each other form a family,
+ * which is revoked as a whole when a rotated token is used again.
+ * Entity is mapped to the "refresh_tokens" table in the database.
+ */
+@Table(name = "refresh_tokens")
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenEntity {
+
+    /** Unique identifier for the refresh token */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** User the token was issued to */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    /** Identifier shared by the tokens issued by rotating each other */
+    @Column(nullable = false, length = 36)
+    private String family;
+
+    /** Hex encoded SHA-256 hash of the token */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /** Time the token expires at */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /** Whether the token was used or revoked */
+    @Column(nullable = false)
+    private boolean revoked;
+}
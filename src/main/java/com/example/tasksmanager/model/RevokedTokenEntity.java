@@ -0,0 +1,31 @@
+package com.example.tasksmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents a JWT token revoked before it expired.
+ * Entity is mapped to the "revoked_tokens" table in the database.
+ */
+@Table(name = "revoked_tokens")
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedTokenEntity {
+
+    /** The id ("jti" claim) of the revoked token */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    /** Time the revoked token expires at, after which it does not need to be kept */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
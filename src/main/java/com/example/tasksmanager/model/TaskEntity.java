@@ -18,9 +18,10 @@ import java.sql.Date;
 @Data
 public class TaskEntity {
 
-    /** Unique identifier for the task */
+    /** Unique identifier for the task, allocated from the sequence in blocks so inserts can be batched */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Integer id;
 
     /** Title of the task */
@@ -32,7 +33,7 @@ public class TaskEntity {
     private String description;
 
     /** The user to whom the task is assigned */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity user;
 
     /** Deadline for the task */
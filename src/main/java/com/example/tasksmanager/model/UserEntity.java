@@ -42,5 +42,8 @@ public class UserEntity {
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"))
     private List<RoleEntity> roles = new ArrayList<>();
 
+    /** Version of the user's roles, incremented by a database trigger on every change of the user_roles rows */
+    @Column(name = "roles_version", nullable = false, updatable = false)
+    private int rolesVersion;
 
 }
@@ -0,0 +1,328 @@
+package com.example.tasksmanager.reminder;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires reminders of approaching task deadlines to the {@link ReminderSink} beans.
+ * The deadlines of the next days are kept in a {@link TimingWheel}. The window is loaded once at start
+ * and then extended by one range scan of the (date, id) index whenever a day passes,
+ * and task changes, local or received from the other nodes, update it as they happen.
+ * A task is due at the end of its date, and its reminder fires the configured lead time before that.
+ * Loading the window fires right away the reminders whose time passed while they were not kept, before a start
+ * or while changes of the other nodes were missed. The node remembers which reminders it fired for tasks not due yet,
+ * so a reload does not fire them again, but after a restart they are fired once more.
+ * Every task is owned by exactly one node: the ids are split between the nodes by a multiplicative hash,
+ * and each node loads and reminds only of its own tasks.
+ * The wheel is only touched by a single scheduler thread, the event listeners hand their work over to it.
+ * The number of kept reminders and the fired reminders are published as "tasks.reminders.scheduled"
+ * and "tasks.reminders.fired", the scheduler thread copies the size of the wheel after every change for the gauge.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "tasks.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineScheduler {
+
+    /** Keeps the multiplied id within 32 bits, so Java and Postgres compute the same owner */
+    private static final String OWNED =
+            "mod((id::bigint * 2654435761) % 4294967296, :nodeCount) = :nodeIndex";
+
+    private static final String WINDOW_QUERY =
+            "select id, title, user_id, date from tasks " +
+            "where (date, id) > (:afterDate, :afterId) and date <= :to and " + OWNED + " " +
+            "order by date, id limit :limit";
+
+    private static final String TITLES_QUERY =
+            "select id, title, user_id, date from tasks where title in (:titles) and date >= :from and date <= :to";
+
+    private static final String USER_QUERY =
+            "select id, title, user_id, date from tasks where user_id = :userId and date >= :from and date <= :to";
+
+    private static final RowMapper<TaskReminder> REMINDER_MAPPER = (rs, rowNum) -> new TaskReminder(
+            rs.getInt("id"), rs.getString("title"), rs.getLong("user_id"), rs.getDate("date").toLocalDate());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final List<ReminderSink> sinks;
+    private final ScheduledExecutorService executor;
+    private final TimingWheel<Integer, TaskReminder> wheel;
+    private final Counter fired;
+    private final AtomicInteger scheduled;
+    private final ZoneId zone;
+    private final long tickMillis;
+    private final long leadTime;
+    private final int windowDays;
+    private final int batchSize;
+    private final int nodeIndex;
+    private final int nodeCount;
+
+    /** The title of every kept reminder, to find the reminders of changed tasks */
+    private final Map<String, Integer> titles = new HashMap<>();
+
+    /** The due time of every task whose reminder fired before it is due, so a reload does not fire it again */
+    private final Map<Integer, Long> firedUntilDue = new HashMap<>();
+
+    /** The last date whose deadlines are kept */
+    private LocalDate loadedUntil;
+
+    /** Whether the next load fires the reminders whose time passed while they were not kept */
+    private boolean fireMissed;
+
+    public DeadlineScheduler(NamedParameterJdbcTemplate jdbcTemplate,
+                             List<ReminderSink> sinks,
+                             MeterRegistry meterRegistry,
+                             @Value("${tasks.reminders.zone:}") String zone,
+                             @Value("${tasks.reminders.tick:1000}") long tickMillis,
+                             @Value("${tasks.reminders.lead-time:86400000}") long leadTime,
+                             @Value("${tasks.reminders.window-days:2}") int windowDays,
+                             @Value("${tasks.reminders.batch-size:1000}") int batchSize,
+                             @Value("${tasks.reminders.node-index:0}") int nodeIndex,
+                             @Value("${tasks.reminders.node-count:1}") int nodeCount) {
+        if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+            throw new IllegalArgumentException("Incorrect reminder node " + nodeIndex + " of " + nodeCount);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.sinks = sinks;
+        this.zone = zone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.tickMillis = tickMillis;
+        this.leadTime = leadTime;
+        this.windowDays = windowDays;
+        this.batchSize = batchSize;
+        this.nodeIndex = nodeIndex;
+        this.nodeCount = nodeCount;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-reminders-"));
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        this.fired = meterRegistry.counter("tasks.reminders.fired");
+        this.scheduled = meterRegistry.gauge("tasks.reminders.scheduled", new AtomicInteger());
+    }
+
+    /**
+     * Loads the window and starts ticking.
+     */
+    @PostConstruct
+    public void start() {
+        submit(this::reload);
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops ticking, the kept reminders are loaded again by the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Updates the reminders of the changed tasks after the change is committed.
+     * The changed tasks are loaded again by their titles, or all tasks of the users if the titles are unknown.
+     *
+     * @param event The {@link TaskChangedEvent} of the changed tasks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        submit(() -> apply(event));
+    }
+
+    /**
+     * Loads the window again after changes of the other nodes may have been missed.
+     *
+     * @param event The {@link ClusterResyncEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClusterResync(ClusterResyncEvent event) {
+        submit(this::reload);
+    }
+
+    /**
+     * Checks whether the task is owned by this node.
+     *
+     * @param taskId The id of the task.
+     * @return {@code true} if this node reminds of the task.
+     */
+    boolean owns(Integer taskId) {
+        return Math.floorMod(((long) taskId * 2654435761L) % 4294967296L, nodeCount) == nodeIndex;
+    }
+
+    private void submit(Runnable work) {
+        try {
+            executor.execute(() -> {
+                work.run();
+                scheduled.set(wheel.size());
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Reminder scheduler is stopped, skipping a task change");
+        }
+    }
+
+    private void tick() {
+        try {
+            wheel.advance(System.currentTimeMillis(), this::fire);
+            extendWindow();
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic tick
+            log.error("Failed to advance the reminders", e);
+        } finally {
+            scheduled.set(wheel.size());
+        }
+    }
+
+    private void reload() {
+        wheel.clear();
+        titles.clear();
+        loadedUntil = LocalDate.now(zone).minusDays(1);
+        fireMissed = true;
+        try {
+            extendWindow();
+            log.info("Loaded {} task reminders until {}", wheel.size(), loadedUntil);
+        } catch (RuntimeException e) {
+            // the next tick tries to load the window again
+            log.error("Failed to load the task reminders", e);
+        }
+    }
+
+    /**
+     * Loads the owned tasks of the days that entered the window since the last load, page by page.
+     * After a reload, the reminders whose time has passed and which were not fired yet are fired.
+     */
+    private void extendWindow() {
+        LocalDate until = LocalDate.now(zone).plusDays(windowDays);
+        if (!loadedUntil.isBefore(until)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        firedUntilDue.values().removeIf(due -> due <= now);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterDate", Date.valueOf(loadedUntil))
+                .addValue("afterId", Integer.MAX_VALUE)
+                .addValue("to", Date.valueOf(until))
+                .addValue("nodeCount", nodeCount)
+                .addValue("nodeIndex", nodeIndex)
+                .addValue("limit", batchSize);
+        List<TaskReminder> page;
+        do {
+            page = jdbcTemplate.query(WINDOW_QUERY, params, REMINDER_MAPPER);
+            for (TaskReminder reminder : page) {
+                schedule(reminder, fireMissed && !firedUntilDue.containsKey(reminder.getTaskId()));
+            }
+            if (!page.isEmpty()) {
+                TaskReminder last = page.get(page.size() - 1);
+                params.addValue("afterDate", Date.valueOf(last.getDate())).addValue("afterId", last.getTaskId());
+            }
+        } while (page.size() == batchSize);
+        loadedUntil = until;
+        fireMissed = false;
+    }
+
+    private void apply(TaskChangedEvent event) {
+        try {
+            if (event.getTitles().isEmpty()) {
+                for (Long userId : event.getUserIds()) {
+                    reloadUser(userId);
+                }
+                return;
+            }
+
+            for (String title : event.getTitles()) {
+                Integer taskId = titles.get(title);
+                if (taskId != null) {
+                    cancel(taskId);
+                }
+            }
+            if (event.getType() != TaskChangedEvent.Type.DELETED) {
+                for (int from = 0; from < event.getTitles().size(); from += batchSize) {
+                    List<String> chunk = event.getTitles().subList(from, Math.min(from + batchSize, event.getTitles().size()));
+                    for (TaskReminder reminder : jdbcTemplate.query(TITLES_QUERY, windowParams().addValue("titles", chunk), REMINDER_MAPPER)) {
+                        schedule(reminder, true);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update the reminders of changed tasks of user {}", event.getUserId(), e);
+        }
+    }
+
+    private void reloadUser(Long userId) {
+        for (TaskReminder cancelled : wheel.cancelIf(reminder -> reminder.getUserId().equals(userId))) {
+            titles.remove(cancelled.getTitle(), cancelled.getTaskId());
+        }
+        for (TaskReminder reminder : jdbcTemplate.query(USER_QUERY, windowParams().addValue("userId", userId), REMINDER_MAPPER)) {
+            schedule(reminder, false);
+        }
+    }
+
+    private MapSqlParameterSource windowParams() {
+        return new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(LocalDate.now(zone)))
+                .addValue("to", Date.valueOf(loadedUntil));
+    }
+
+    /**
+     * Keeps the reminder of an owned task.
+     *
+     * @param reminder  The reminder of the task.
+     * @param fireIfDue Whether to fire right away if the reminder time has passed but the task is not due yet,
+     *                  used for tasks created or moved close to their deadline and for reminders missed before a load.
+     */
+    private void schedule(TaskReminder reminder, boolean fireIfDue) {
+        if (!owns(reminder.getTaskId())) {
+            return;
+        }
+        cancel(reminder.getTaskId());
+        long due = due(reminder);
+        if (wheel.schedule(reminder.getTaskId(), due - leadTime, reminder)) {
+            titles.put(reminder.getTitle(), reminder.getTaskId());
+        } else if (fireIfDue && System.currentTimeMillis() < due) {
+            fire(reminder);
+        }
+    }
+
+    private void cancel(Integer taskId) {
+        TaskReminder cancelled = wheel.cancel(taskId);
+        if (cancelled != null) {
+            titles.remove(cancelled.getTitle(), taskId);
+        }
+    }
+
+    private long due(TaskReminder reminder) {
+        return reminder.getDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private void fire(TaskReminder reminder) {
+        titles.remove(reminder.getTitle(), reminder.getTaskId());
+        firedUntilDue.put(reminder.getTaskId(), due(reminder));
+        fired.increment();
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.remind(reminder);
+            } catch (RuntimeException e) {
+                log.error("Reminder sink {} failed for task {}", sink.getClass().getSimpleName(), reminder.getTaskId(), e);
+            }
+        }
+    }
+}
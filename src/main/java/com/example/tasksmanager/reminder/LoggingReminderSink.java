@@ -0,0 +1,17 @@
+package com.example.tasksmanager.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the reminders to the log.
+ */
+@Component
+@Slf4j
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        log.info("Task '{}' of user {} is due on {}", reminder.getTitle(), reminder.getUserId(), reminder.getDate());
+    }
+}
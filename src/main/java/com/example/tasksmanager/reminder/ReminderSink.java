@@ -0,0 +1,16 @@
+package com.example.tasksmanager.reminder;
+
+/**
+ * Receives the reminders of approaching deadlines fired by the {@link DeadlineScheduler}.
+ * Every bean implementing it receives every reminder of the tasks owned by this node.
+ * Reminders are delivered on the scheduler thread, so a slow delivery should be handed off to another thread.
+ */
+public interface ReminderSink {
+
+    /**
+     * Delivers a reminder.
+     *
+     * @param reminder The reminder of the task.
+     */
+    void remind(TaskReminder reminder);
+}
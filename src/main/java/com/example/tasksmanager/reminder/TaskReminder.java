@@ -0,0 +1,28 @@
+package com.example.tasksmanager.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Reminder of an approaching deadline of a task.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TaskReminder {
+
+    /** Unique identifier of the task */
+    private final Integer taskId;
+
+    /** The title of the task */
+    private final String title;
+
+    /** Unique identifier of the user the task is assigned to */
+    private final Long userId;
+
+    /** Deadline of the task */
+    private final LocalDate date;
+}
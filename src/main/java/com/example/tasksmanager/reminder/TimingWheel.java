@@ -0,0 +1,201 @@
+package com.example.tasksmanager.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical timing wheel that keeps timers by key and expires them tick by tick.
+ * Every level has 64 slots, a slot of the first level spans one tick and a slot of each next level spans
+ * all slots of the previous one, so scheduling, cancelling and expiring a timer cost O(1)
+ * no matter how many timers are kept or how far away they are.
+ * When the time reaches the start of a slot of a higher level, its timers are moved down to the lower levels.
+ * Timers beyond the last level wait in an overflow bucket until they fit.
+ * Not thread-safe, all methods must be called by the same thread.
+ *
+ * @param <K> the type of the keys of the timers
+ * @param <V> the type of the values passed to the expiry callback
+ */
+public class TimingWheel<K, V> {
+
+    static final int WHEEL_BITS = 6;
+    static final int LEVELS = 4;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long tickMillis;
+    private final Map<K, Entry<K, V>>[][] slots;
+    private final Map<K, Entry<K, V>> overflow = new LinkedHashMap<>();
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("The tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.slots = new Map[LEVELS][WHEEL_SIZE];
+        for (Map<K, Entry<K, V>>[] level : slots) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                level[slot] = new LinkedHashMap<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer, replacing the timer with the same key.
+     * The timer expires on the first tick at or after the deadline, never before it.
+     *
+     * @param key            The key of the timer.
+     * @param deadlineMillis The deadline in epoch milliseconds.
+     * @param value          The value passed to the expiry callback.
+     * @return {@code true} if the timer was scheduled, {@code false} if the deadline has already been reached,
+     *         in which case no timer is kept for the key.
+     */
+    public boolean schedule(K key, long deadlineMillis, V value) {
+        cancel(key);
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        Entry<K, V> entry = new Entry<>(key, deadlineTick, value);
+        entries.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    /**
+     * Cancels a timer.
+     *
+     * @param key The key of the timer.
+     * @return The value of the cancelled timer, or {@code null} if there was no timer with the key.
+     */
+    public V cancel(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.bucket.remove(key);
+        return entry.value;
+    }
+
+    /**
+     * Cancels all timers whose values match the filter.
+     *
+     * @param filter The filter of the values.
+     * @return The values of the cancelled timers.
+     */
+    public List<V> cancelIf(Predicate<V> filter) {
+        List<V> cancelled = new ArrayList<>();
+        for (Entry<K, V> entry : new ArrayList<>(entries.values())) {
+            if (filter.test(entry.value)) {
+                cancel(entry.key);
+                cancelled.add(entry.value);
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels all timers.
+     */
+    public void clear() {
+        for (Map<K, Entry<K, V>>[] level : slots) {
+            for (Map<K, Entry<K, V>> bucket : level) {
+                bucket.clear();
+            }
+        }
+        overflow.clear();
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     *
+     * @return The number of timers.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advances the time tick by tick up to the given time, expiring the timers whose deadlines are reached.
+     *
+     * @param nowMillis The current time in epoch milliseconds.
+     * @param expired   The callback receiving the values of the expired timers, in the order of their deadlines.
+     */
+    public void advance(long nowMillis, Consumer<V> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            if (!overflow.isEmpty() && (currentTick & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][(int) ((currentTick >> (WHEEL_BITS * level)) & WHEEL_MASK)]);
+                }
+            }
+
+            Map<K, Entry<K, V>> bucket = slots[0][(int) (currentTick & WHEEL_MASK)];
+            if (!bucket.isEmpty()) {
+                List<Entry<K, V>> due = new ArrayList<>(bucket.values());
+                bucket.clear();
+                for (Entry<K, V> entry : due) {
+                    entries.remove(entry.key);
+                    expired.accept(entry.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the timers of a bucket to the levels matching their remaining time.
+     */
+    private void cascade(Map<K, Entry<K, V>> bucket) {
+        List<Entry<K, V>> moved = new ArrayList<>(bucket.values());
+        bucket.clear();
+        for (Entry<K, V> entry : moved) {
+            place(entry);
+        }
+    }
+
+    /**
+     * Puts a timer into the lowest level whose range covers its remaining time.
+     */
+    private void place(Entry<K, V> entry) {
+        long ticks = entry.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (ticks < 1L << (WHEEL_BITS * (level + 1))) {
+                entry.bucket = slots[level][(int) ((entry.deadlineTick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+                entry.bucket.put(entry.key, entry);
+                return;
+            }
+        }
+        entry.bucket = overflow;
+        overflow.put(entry.key, entry);
+    }
+
+    /** A scheduled timer */
+    private static class Entry<K, V> {
+
+        private final K key;
+        private final long deadlineTick;
+        private final V value;
+
+        /** The bucket the timer is kept in */
+        private Map<K, Entry<K, V>> bucket;
+
+        private Entry(K key, long deadlineTick, V value) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.tasksmanager.repository;
+
+import com.example.tasksmanager.model.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link RefreshTokenEntity}.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    /**
+     * Finds a refresh token by the hash of the token, together with its user.
+     *
+     * @param tokenHash The hash of the token.
+     * @return An {@link Optional} containing the {@link RefreshTokenEntity} if found, otherwise an empty {@link Optional}.
+     */
+    @Query("select t from RefreshTokenEntity t join fetch t.user where t.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marks a refresh token as used if it is neither revoked nor expired.
+     * Only one of the concurrent requests using the same token succeeds.
+     *
+     * @param tokenHash The hash of the token.
+     * @param now       The current time.
+     * @return The number of updated tokens, {@code 0} if the token is not found, revoked or expired.
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.revoked = true " +
+            "where t.tokenHash = :tokenHash and t.revoked = false and t.expiresAt > :now")
+    int revokeIfActive(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * Revokes all tokens of a family.
+     *
+     * @param family The family of the tokens.
+     * @return The number of revoked tokens.
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.revoked = true where t.family = :family and t.revoked = false")
+    int revokeFamily(@Param("family") String family);
+
+    /**
+     * Deletes the tokens that expired before the given time.
+     *
+     * @param time The time.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Query("delete from RefreshTokenEntity t where t.expiresAt < :time")
+    int deleteExpiredBefore(@Param("time") Instant time);
+}
@@ -0,0 +1,34 @@
+package com.example.tasksmanager.repository;
+
+import com.example.tasksmanager.model.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for {@link RevokedTokenEntity}.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    /**
+     * Finds the revoked tokens that have not expired yet.
+     *
+     * @param time The current time.
+     * @return A list of {@link RevokedTokenEntity} expiring after the given time.
+     */
+    List<RevokedTokenEntity> findByExpiresAtAfter(Instant time);
+
+    /**
+     * Deletes the revoked tokens that expired before the given time.
+     *
+     * @param time The time.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Query("delete from RevokedTokenEntity t where t.expiresAt < :time")
+    int deleteExpiredBefore(@Param("time") Instant time);
+}
@@ -1,19 +1,28 @@
 package com.example.tasksmanager.repository;
 
+import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.dto.TaskSearchView;
+import com.example.tasksmanager.dto.TaskView;
 import com.example.tasksmanager.model.TaskEntity;
 import com.example.tasksmanager.model.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for {@link TaskEntity}.
  */
-public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, TaskRepositoryCustom {
 
     /**
      * Deletes a task by its title.
@@ -31,13 +40,110 @@ public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
     Optional<TaskEntity> findByTitle(String title);
 
     /**
-     * Finds tasks assigned to a specific user with pagination.
+     * Finds tasks assigned to a specific user with pagination, ordered by date and id.
+     * Only the columns of {@link TaskResponseDto} are selected and no count query is run.
      *
-     * @param user     The {@link UserEntity} whose tasks are to be retrieved.
+     * @param userId   The id of the user whose tasks are to be retrieved.
      * @param pageable The {@link Pageable} object specifying the page request details.
-     * @return A {@link Page} containing {@link TaskEntity} assigned to the specified user.
+     * @return A list of {@link TaskResponseDto} of the tasks assigned to the specified user.
      */
-    Page<TaskEntity> findByUser(UserEntity user, Pageable pageable);
+    @Query("select new com.example.tasksmanager.dto.TaskResponseDto(t.title, t.description, t.date) " +
+            "from TaskEntity t where t.user.id = :userId order by t.date, t.id")
+    List<TaskResponseDto> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Finds the first tasks assigned to a specific user, ordered by date and id, without counting all tasks.
+     *
+     * @param userId   The id of the user whose tasks are to be retrieved.
+     * @param pageable The {@link Pageable} object specifying the page size.
+     * @return A {@link Slice} containing {@link TaskView} of the tasks assigned to the specified user.
+     */
+    @Query("select t.id as id, t.title as title, t.description as description, t.date as date " +
+            "from TaskEntity t where t.user.id = :userId order by t.date, t.id")
+    Slice<TaskView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Finds the tasks assigned to a specific user that follow the given position in the order of date and id,
+     * without counting all tasks. The position is looked up in the (user_id, date, id) index,
+     * so every page costs the same regardless of how deep it is.
+     *
+     * @param userId   The id of the user whose tasks are to be retrieved.
+     * @param date     The date of the last task of the previous page.
+     * @param id       The id of the last task of the previous page.
+     * @param pageable The {@link Pageable} object specifying the page size.
+     * @return A {@link Slice} containing {@link TaskView} of the tasks assigned to the specified user.
+     */
+    @Query("select t.id as id, t.title as title, t.description as description, t.date as date " +
+            "from TaskEntity t where t.user.id = :userId and t.date >= :date " +
+            "and (t.date > :date or t.id > :id) order by t.date, t.id")
+    Slice<TaskView> findViewsByUserIdAfter(@Param("userId") Long userId, @Param("date") Date date, @Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Finds the first tasks assigned to a specific user with deadlines in the given range, ordered by date and id.
+     * All selected columns are in the covering (user_id, date, id) index, so the tasks are read with an index-only scan.
+     *
+     * @param userId   The id of the user whose tasks are to be retrieved.
+     * @param from     The earliest deadline, inclusive.
+     * @param to       The latest deadline, inclusive.
+     * @param pageable The {@link Pageable} object specifying the page size.
+     * @return A {@link Slice} containing {@link TaskView} of the tasks with deadlines in the range.
+     */
+    @Query("select t.id as id, t.title as title, t.description as description, t.date as date " +
+            "from TaskEntity t where t.user.id = :userId and t.date >= :from and t.date <= :to order by t.date, t.id")
+    Slice<TaskView> findViewsByUserIdAndDateBetween(@Param("userId") Long userId, @Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    /**
+     * Finds the tasks assigned to a specific user with deadlines up to the given date
+     * that follow the given position in the order of date and id.
+     *
+     * @param userId   The id of the user whose tasks are to be retrieved.
+     * @param to       The latest deadline, inclusive.
+     * @param date     The date of the last task of the previous page.
+     * @param id       The id of the last task of the previous page.
+     * @param pageable The {@link Pageable} object specifying the page size.
+     * @return A {@link Slice} containing {@link TaskView} of the tasks with deadlines in the range.
+     */
+    @Query("select t.id as id, t.title as title, t.description as description, t.date as date " +
+            "from TaskEntity t where t.user.id = :userId and t.date >= :date and t.date <= :to " +
+            "and (t.date > :date or t.id > :id) order by t.date, t.id")
+    Slice<TaskView> findViewsByUserIdAndDateBetweenAfter(@Param("userId") Long userId, @Param("to") Date to,
+                                                         @Param("date") Date date, @Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Finds the tasks assigned to a specific user whose title or description match a web search query,
+     * ordered by descending rank and id. Matches are looked up in the GIN index of the search vector.
+     *
+     * @param userId The id of the user whose tasks are searched.
+     * @param query  The query in the web search syntax: words, "quoted phrases", or and -excluded words.
+     * @param limit  The maximum number of tasks to return.
+     * @return A list of {@link TaskSearchView} of the matching tasks.
+     */
+    @Query(value = "select t.id as id, t.title as title, t.description as description, t.date as date, " +
+            "ts_rank(t.search_vector, q.query) as rank " +
+            "from tasks t, websearch_to_tsquery('simple', :query) q(query) " +
+            "where t.user_id = :userId and t.search_vector @@ q.query " +
+            "order by rank desc, t.id desc limit :limit", nativeQuery = true)
+    List<TaskSearchView> search(@Param("userId") Long userId, @Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Finds the tasks matching a web search query that follow the given position in the order of descending rank and id.
+     *
+     * @param userId The id of the user whose tasks are searched.
+     * @param query  The query in the web search syntax.
+     * @param rank   The rank of the last task of the previous page.
+     * @param id     The id of the last task of the previous page.
+     * @param limit  The maximum number of tasks to return.
+     * @return A list of {@link TaskSearchView} of the matching tasks.
+     */
+    @Query(value = "select * from (" +
+            "select t.id as id, t.title as title, t.description as description, t.date as date, " +
+            "ts_rank(t.search_vector, q.query) as rank " +
+            "from tasks t, websearch_to_tsquery('simple', :query) q(query) " +
+            "where t.user_id = :userId and t.search_vector @@ q.query) r " +
+            "where r.rank < cast(:rank as real) or (r.rank = cast(:rank as real) and r.id < :id) " +
+            "order by r.rank desc, r.id desc limit :limit", nativeQuery = true)
+    List<TaskSearchView> searchAfter(@Param("userId") Long userId, @Param("query") String query,
+                                     @Param("rank") Float rank, @Param("id") Integer id, @Param("limit") int limit);
 
 
     /**
@@ -48,4 +154,123 @@ public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
      */
     Boolean existsByTitle(String title);
 
+    /**
+     * Finds which of the given titles are already taken.
+     *
+     * @param titles The titles to check.
+     * @return The titles of existing tasks among the given ones.
+     */
+    @Query("select t.title from TaskEntity t where t.title in :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Checks if a task with the specified title is assigned to the specified user.
+     *
+     * @param title  The title of the task to check.
+     * @param userId The id of the user.
+     * @return {@code true} if the task exists and is assigned to the user, otherwise {@code false}.
+     */
+    Boolean existsByTitleAndUserId(String title, Long userId);
+
+    /**
+     * Deletes a task by its title if it is assigned to the specified user.
+     *
+     * @param title  The title of the task to delete.
+     * @param userId The id of the user the task must be assigned to.
+     * @return The number of deleted tasks.
+     */
+    @Modifying
+    @Query("delete from TaskEntity t where t.title = :title and t.user.id = :userId")
+    int deleteOwned(@Param("title") String title, @Param("userId") Long userId);
+
+    /**
+     * Changes the title of a task if it is assigned to the specified user.
+     *
+     * @param title    The current title of the task.
+     * @param userId   The id of the user the task must be assigned to.
+     * @param newTitle The new title of the task.
+     * @return The number of updated tasks.
+     */
+    @Modifying
+    @Query("update TaskEntity t set t.title = :newTitle where t.title = :title and t.user.id = :userId")
+    int updateTitle(@Param("title") String title, @Param("userId") Long userId, @Param("newTitle") String newTitle);
+
+    /**
+     * Changes the description of a task if it is assigned to the specified user.
+     *
+     * @param title          The title of the task.
+     * @param userId         The id of the user the task must be assigned to.
+     * @param newDescription The new description of the task.
+     * @return The number of updated tasks.
+     */
+    @Modifying
+    @Query("update TaskEntity t set t.description = :newDescription where t.title = :title and t.user.id = :userId")
+    int updateDescription(@Param("title") String title, @Param("userId") Long userId, @Param("newDescription") String newDescription);
+
+    /**
+     * Changes the deadline of a task if it is assigned to the specified user.
+     *
+     * @param title   The title of the task.
+     * @param userId  The id of the user the task must be assigned to.
+     * @param newDate The new deadline of the task.
+     * @return The number of updated tasks.
+     */
+    @Modifying
+    @Query("update TaskEntity t set t.date = :newDate where t.title = :title and t.user.id = :userId")
+    int updateDate(@Param("title") String title, @Param("userId") Long userId, @Param("newDate") Date newDate);
+
+    /**
+     * Assigns a task to another user if the task is assigned to the specified user.
+     *
+     * @param title     The title of the task.
+     * @param userId    The id of the user the task must be assigned to.
+     * @param newUserId The id of the user to assign the task to.
+     * @return The number of updated tasks, {@code 0} if the task was not found or is assigned to another user.
+     */
+    @Modifying
+    @Query(value = "update tasks set user_id = :newUserId where title = :title and user_id = :userId", nativeQuery = true)
+    int updateUser(@Param("title") String title, @Param("userId") Long userId, @Param("newUserId") Long newUserId);
+
+    /**
+     * Deletes the tasks with the given titles that are assigned to the specified user.
+     *
+     * @param titles The titles of the tasks to delete.
+     * @param userId The id of the user the tasks must be assigned to.
+     * @return The titles of the deleted tasks.
+     */
+    @Query(value = "delete from tasks where title in (:titles) and user_id = :userId returning title", nativeQuery = true)
+    List<String> deleteOwnedByTitles(@Param("titles") Collection<String> titles, @Param("userId") Long userId);
+
+    /**
+     * Deletes at most the given number of tasks assigned to the specified user.
+     *
+     * @param userId The id of the user whose tasks are deleted.
+     * @param limit  The maximum number of tasks to delete.
+     * @return The titles of the deleted tasks.
+     */
+    @Query(value = "delete from tasks where id in (select id from tasks where user_id = :userId limit :limit) returning title", nativeQuery = true)
+    List<String> deleteOwnedChunk(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Assigns the tasks with the given titles that are assigned to the specified user to another user.
+     *
+     * @param titles    The titles of the tasks to reassign.
+     * @param userId    The id of the user the tasks must be assigned to.
+     * @param newUserId The id of the user to assign the tasks to.
+     * @return The titles of the reassigned tasks.
+     */
+    @Query(value = "update tasks set user_id = :newUserId where title in (:titles) and user_id = :userId returning title", nativeQuery = true)
+    List<String> reassignOwnedByTitles(@Param("titles") Collection<String> titles, @Param("userId") Long userId, @Param("newUserId") Long newUserId);
+
+    /**
+     * Assigns at most the given number of tasks of the specified user to another user.
+     *
+     * @param userId    The id of the user whose tasks are reassigned.
+     * @param newUserId The id of the user to assign the tasks to.
+     * @param limit     The maximum number of tasks to reassign.
+     * @return The titles of the reassigned tasks.
+     */
+    @Query(value = "update tasks set user_id = :newUserId " +
+            "where id in (select id from tasks where user_id = :userId limit :limit) returning title", nativeQuery = true)
+    List<String> reassignOwnedChunk(@Param("userId") Long userId, @Param("newUserId") Long newUserId, @Param("limit") int limit);
 }
@@ -0,0 +1,23 @@
+package com.example.tasksmanager.repository;
+
+import java.sql.Date;
+
+/**
+ * Custom operations of {@link TaskRepository} that can not be expressed as a single query method.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Changes several fields of a task in one statement if the task is assigned to the specified user.
+     * Only the columns of the fields that are not {@code null} are updated.
+     *
+     * @param title          The title of the task.
+     * @param userId         The id of the user the task must be assigned to.
+     * @param newTitle       The new title, or {@code null} to keep the current one.
+     * @param newDescription The new description, or {@code null} to keep the current one.
+     * @param newDate        The new deadline, or {@code null} to keep the current one.
+     * @param newUserId      The id of the new user, or {@code null} to keep the current one.
+     * @return The number of updated tasks.
+     */
+    int patchOwned(String title, Long userId, String newTitle, String newDescription, Date newDate, Long newUserId);
+}
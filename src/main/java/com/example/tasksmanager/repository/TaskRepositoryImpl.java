@@ -0,0 +1,45 @@
+package com.example.tasksmanager.repository;
+
+import com.example.tasksmanager.model.TaskEntity;
+import com.example.tasksmanager.model.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.Date;
+
+/**
+ * Implementation of {@link TaskRepositoryCustom} based on the JPA Criteria API.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patchOwned(String title, Long userId, String newTitle, String newDescription, Date newDate, Long newUserId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<TaskEntity> update = cb.createCriteriaUpdate(TaskEntity.class);
+        Root<TaskEntity> task = update.from(TaskEntity.class);
+
+        if (newTitle != null) {
+            update.set(task.<String>get("title"), newTitle);
+        }
+        if (newDescription != null) {
+            update.set(task.<String>get("description"), newDescription);
+        }
+        if (newDate != null) {
+            update.set(task.<Date>get("date"), newDate);
+        }
+        if (newUserId != null) {
+            update.set(task.<UserEntity>get("user"), entityManager.getReference(UserEntity.class, newUserId));
+        }
+
+        update.where(
+                cb.equal(task.get("title"), title),
+                cb.equal(task.get("user").get("id"), userId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
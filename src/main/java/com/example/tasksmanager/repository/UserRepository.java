@@ -6,6 +6,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +34,15 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
      */
     Optional<UserEntity> findByUsername(String username);
 
+    /**
+     * Finds the id of a user by their username.
+     *
+     * @param username The username of the user to find.
+     * @return An {@link Optional} containing the id of the user if found, otherwise an empty {@link Optional}.
+     */
+    @Query("select u.id from UserEntity u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     /**
      * Checks if a user with the specified email exists.
      *
@@ -47,4 +58,13 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
      * @return A {@link Page} containing {@link UserEntity} objects.
      */
     Page<UserEntity> findAll(Pageable pageable);
+
+    /**
+     * Finds the current version of the roles of a user.
+     *
+     * @param id The id of the user.
+     * @return An {@link Optional} containing the roles version if the user exists, otherwise an empty {@link Optional}.
+     */
+    @Query("select u.rolesVersion from UserEntity u where u.id = :id")
+    Optional<Integer> findRolesVersionById(@Param("id") Long id);
 }
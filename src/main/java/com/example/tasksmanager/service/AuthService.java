@@ -1,11 +1,15 @@
 package com.example.tasksmanager.service;
 
+import com.example.tasksmanager.dto.AuthResponseDto;
 import com.example.tasksmanager.dto.LoginDto;
+import com.example.tasksmanager.dto.RefreshTokenDto;
 import com.example.tasksmanager.dto.RegisterDto;
 import com.example.tasksmanager.exceptions.ErrorInputDataException;
 import com.example.tasksmanager.exceptions.ErrorRegisterUserException;
 
 public interface AuthService {
-    String login(LoginDto loginDto);
+    AuthResponseDto login(LoginDto loginDto);
+    AuthResponseDto refresh(RefreshTokenDto refreshTokenDto);
+    void logout(RefreshTokenDto refreshTokenDto, String accessToken);
     void register(RegisterDto registerDto) throws ErrorRegisterUserException, ErrorInputDataException;
 }
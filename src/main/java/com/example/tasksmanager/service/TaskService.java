@@ -1,24 +1,39 @@
 package com.example.tasksmanager.service;
 
+import com.example.tasksmanager.dto.BatchTaskResultDto;
+import com.example.tasksmanager.dto.BulkTaskRequestDto;
 import com.example.tasksmanager.dto.CreateTaskDto;
+import com.example.tasksmanager.dto.PatchTaskDto;
 import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.dto.TaskSliceDto;
 import com.example.tasksmanager.dto.UserResponseDto;
 import com.example.tasksmanager.exceptions.ErrorCreateTaskException;
 import com.example.tasksmanager.exceptions.ErrorDeleteTaskException;
 import com.example.tasksmanager.exceptions.ErrorEditTaskException;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
 
 import java.sql.Date;
 import java.util.List;
 
 public interface TaskService {
-    void create(CreateTaskDto createTuskDto, String username) throws ErrorCreateTaskException;
-    void delete(String title, String username) throws ErrorDeleteTaskException;
-    List<TaskResponseDto> showMyTasks(String username, Integer limit, Integer offset);
-    void editTitle(String title, String newTitle, String username) throws ErrorEditTaskException;
+    void create(CreateTaskDto createTuskDto, AuthenticatedUser user) throws ErrorCreateTaskException;
+    List<BatchTaskResultDto> createBatch(List<CreateTaskDto> createTaskDtos, AuthenticatedUser user) throws ErrorCreateTaskException;
+    void delete(String title, AuthenticatedUser user) throws ErrorDeleteTaskException;
+    int bulkDelete(BulkTaskRequestDto request, AuthenticatedUser user);
+    int bulkReassign(BulkTaskRequestDto request, AuthenticatedUser user);
+    List<TaskResponseDto> showMyTasks(AuthenticatedUser user, Integer limit, Integer offset);
+    String tasksETag(AuthenticatedUser user);
+    TaskSliceDto showMyTasksAfter(AuthenticatedUser user, Integer limit, String after);
+    TaskSliceDto searchMyTasks(AuthenticatedUser user, String query, Integer limit, String after);
+    TaskSliceDto showDueTasks(AuthenticatedUser user, Date from, Date to, Integer limit, String after);
+    TaskSliceDto showOverdueTasks(AuthenticatedUser user, Integer limit, String after);
+    TaskSliceDto showUpcomingTasks(AuthenticatedUser user, Integer limit, String after);
+    void editTitle(String title, String newTitle, AuthenticatedUser user) throws ErrorEditTaskException;
 
-    void editDescription(String title, String newDescription, String username) throws ErrorEditTaskException;
-    void editDate(String title, Date newDate, String username) throws ErrorEditTaskException;
-    void editUser(String title, String newUser, String username) throws ErrorEditTaskException;
+    void editDescription(String title, String newDescription, AuthenticatedUser user) throws ErrorEditTaskException;
+    void editDate(String title, Date newDate, AuthenticatedUser user) throws ErrorEditTaskException;
+    void editUser(String title, String newUser, AuthenticatedUser user) throws ErrorEditTaskException;
+    void patch(String title, PatchTaskDto patch, AuthenticatedUser user) throws ErrorEditTaskException;
 
 
 
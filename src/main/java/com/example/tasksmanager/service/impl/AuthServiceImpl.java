@@ -1,10 +1,19 @@
 package com.example.tasksmanager.service.impl;
 
+import com.example.tasksmanager.dto.AuthResponseDto;
 import com.example.tasksmanager.dto.LoginDto;
+import com.example.tasksmanager.dto.RefreshTokenDto;
 import com.example.tasksmanager.dto.RegisterDto;
+import com.example.tasksmanager.event.UserChangedEvent;
 import com.example.tasksmanager.exceptions.ErrorInputDataException;
 import com.example.tasksmanager.exceptions.ErrorRegisterUserException;
+import com.example.tasksmanager.exceptions.UnauthorizedErrorException;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
 import com.example.tasksmanager.jwt.JwtGenerator;
+import com.example.tasksmanager.jwt.JwtTokenCache;
+import com.example.tasksmanager.jwt.TokenDenylist;
+import com.example.tasksmanager.jwt.UserDetailsCache;
+import com.example.tasksmanager.jwt.VerifiedToken;
 import com.example.tasksmanager.mapper.UserMapper;
 import com.example.tasksmanager.model.RoleEntity;
 import com.example.tasksmanager.model.UserEntity;
@@ -12,6 +21,7 @@ import com.example.tasksmanager.repository.RoleRepository;
 import com.example.tasksmanager.repository.UserRepository;
 import com.example.tasksmanager.service.AuthService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -35,31 +45,80 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtGenerator jwtGenerator;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RefreshTokenStore refreshTokenStore;
+    private final UserDetailsCache userDetailsCache;
+    private final JwtTokenCache jwtTokenCache;
+    private final TokenDenylist tokenDenylist;
 
-    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtGenerator jwtGenerator, UserMapper userMapper) {
+    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtGenerator jwtGenerator, UserMapper userMapper, ApplicationEventPublisher eventPublisher,
+                           RefreshTokenStore refreshTokenStore, UserDetailsCache userDetailsCache, JwtTokenCache jwtTokenCache, TokenDenylist tokenDenylist) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtGenerator = jwtGenerator;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        this.refreshTokenStore = refreshTokenStore;
+        this.userDetailsCache = userDetailsCache;
+        this.jwtTokenCache = jwtTokenCache;
+        this.tokenDenylist = tokenDenylist;
     }
 
 
     /**
-     * Authenticates a user and generates a JWT token.
+     * Authenticates a user and generates a short-lived JWT token and a refresh token.
      *
      * @param loginDto DTO containing the user's email and password.
-     * @return JWT token that is used for subsequent requests..
+     * @return {@link AuthResponseDto} with the JWT token that is used for subsequent requests
+     *         and the refresh token that is exchanged for a new JWT token once it expires.
      */
-    public String login(LoginDto loginDto) {
+    public AuthResponseDto login(LoginDto loginDto) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginDto.getEmail(),
                         loginDto.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        return jwtGenerator.generateToken(authentication);
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        return new AuthResponseDto(jwtGenerator.generateToken(authentication), refreshTokenStore.issue(user.getId()),
+                jwtGenerator.getExpiration() / 1000);
+    }
+
+    /**
+     * Exchanges a refresh token for a new JWT token and a new refresh token, without checking the password.
+     * The used refresh token can not be used again.
+     *
+     * @param refreshTokenDto DTO containing the refresh token.
+     * @return {@link AuthResponseDto} with the new tokens.
+     * @throws UnauthorizedErrorException if the refresh token is incorrect, expired, revoked or already used.
+     */
+    public AuthResponseDto refresh(RefreshTokenDto refreshTokenDto) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshTokenDto.getRefreshToken());
+
+        AuthenticatedUser user = userDetailsCache.get(rotation.getEmail());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        return new AuthResponseDto(jwtGenerator.generateToken(authentication), rotation.getToken(),
+                jwtGenerator.getExpiration() / 1000);
+    }
+
+    /**
+     * Revokes the access token until it expires, and the refresh token with all refresh tokens issued by rotating it.
+     *
+     * @param refreshTokenDto DTO containing the refresh token.
+     * @param accessToken     The JWT token to revoke, or {@code null} if only the refresh token is revoked.
+     * @throws org.springframework.security.authentication.AuthenticationCredentialsNotFoundException if the JWT token is expired or incorrect.
+     */
+    public void logout(RefreshTokenDto refreshTokenDto, String accessToken) {
+        if (accessToken != null) {
+            VerifiedToken token = jwtTokenCache.verify(accessToken);
+            if (token.getJti() != null) {
+                tokenDenylist.revoke(token.getJti(), token.getExpiration().getTime());
+            }
+            jwtTokenCache.invalidate(accessToken);
+        }
+        refreshTokenStore.revoke(refreshTokenDto.getRefreshToken());
     }
 
 
@@ -84,6 +143,7 @@ public class AuthServiceImpl implements AuthService {
 
         try {
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
             log.info("Success registered user");
         } catch (Exception e) {
             log.error("Error user register");
@@ -0,0 +1,45 @@
+package com.example.tasksmanager.service.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the fields of RFC 4180 CSV records.
+ */
+public final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Writes a field, quoting it only if it contains a separator, a quote or a line break.
+     *
+     * @param writer The writer of the record.
+     * @param value  The value of the field.
+     */
+    public static void writeField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writeQuoted(writer, value);
+    }
+
+    /**
+     * Writes a field that is always quoted, so an empty string differs from a missing value.
+     *
+     * @param writer The writer of the record.
+     * @param value  The value of the field.
+     */
+    public static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
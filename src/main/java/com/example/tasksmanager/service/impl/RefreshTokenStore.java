@@ -0,0 +1,160 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.exceptions.UnauthorizedErrorException;
+import com.example.tasksmanager.model.RefreshTokenEntity;
+import com.example.tasksmanager.repository.RefreshTokenRepository;
+import com.example.tasksmanager.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes the refresh tokens.
+ * Only the SHA-256 hash of a token is stored, so the stored hashes can not be used to refresh.
+ * Every refresh marks the used token and issues a new one of the same family.
+ * A token that is used again after it was rotated was most likely stolen,
+ * so its whole family is revoked and the user has to log in again.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    /** The lifetime of the refresh tokens, in milliseconds. */
+    @Value("${jwt.refresh.expiration:2592000000}")
+    private long expiration;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Issues a refresh token of a new family.
+     *
+     * @param userId The id of the user the token is issued to.
+     * @return The refresh token.
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Marks the refresh token as used and issues a new token of the same family.
+     *
+     * @param token The refresh token.
+     * @return The {@link Rotation} with the email of the user and the new refresh token.
+     * @throws UnauthorizedErrorException if the token is incorrect, expired, revoked or already used.
+     */
+    @Transactional(noRollbackFor = UnauthorizedErrorException.class)
+    public Rotation rotate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new UnauthorizedErrorException("Refresh token is required");
+        }
+
+        String tokenHash = hash(token);
+        RefreshTokenEntity stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new UnauthorizedErrorException("Refresh token is incorrect"));
+
+        Instant now = Instant.now();
+        if (refreshTokenRepository.revokeIfActive(tokenHash, now) == 0) {
+            if (stored.getExpiresAt().isAfter(now)) {
+                refreshTokenRepository.revokeFamily(stored.getFamily());
+                log.warn("Refresh token of user '{}' was used again, revoking its family", stored.getUser().getEmail());
+            }
+            throw new UnauthorizedErrorException("Refresh token was expired or revoked");
+        }
+
+        return new Rotation(stored.getUser().getEmail(), issue(stored.getUser().getId(), stored.getFamily()));
+    }
+
+    /**
+     * Revokes the family of the refresh token. Unknown tokens are ignored.
+     *
+     * @param token The refresh token.
+     */
+    @Transactional
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(stored -> refreshTokenRepository.revokeFamily(stored.getFamily()));
+    }
+
+    /**
+     * Deletes the expired refresh tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    /**
+     * Generates a random token and stores its hash.
+     *
+     * @param userId The id of the user the token is issued to.
+     * @param family The family of the token.
+     * @return The refresh token.
+     */
+    private String issue(Long userId, String family) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshTokenEntity(null, userRepository.getReferenceById(userId), family,
+                hash(token), Instant.now().plusMillis(expiration), false));
+        return token;
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 hash of the token.
+     *
+     * @param token The refresh token.
+     * @return The hash of the token.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Result of a refresh token rotation */
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+
+        /** Email of the user the token was issued to */
+        private final String email;
+
+        /** The new refresh token */
+        private final String token;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.dto.TaskChangeDto;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the committed changes of the tasks of every user to the user's Server-Sent Events subscribers.
+ * Idle subscribers hold no thread: the events are queued in a bounded buffer per subscriber
+ * and written by a small shared pool of threads. A subscriber whose buffer is full is dropped,
+ * so a slow consumer can not hold back the others or make the node run out of memory.
+ * The number of subscribers and of dropped subscribers are published as "tasks.stream.subscribers"
+ * and "tasks.stream.dropped".
+ */
+@Component
+@Slf4j
+public class TaskChangeFeed {
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor;
+    private final Counter dropped;
+    private final int bufferSize;
+    private final long timeout;
+
+    public TaskChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${tasks.stream.threads:4}") int threads,
+                          @Value("${tasks.stream.buffer-size:64}") int bufferSize,
+                          @Value("${tasks.stream.timeout:1800000}") long timeout) {
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("task-feed-"));
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.dropped = meterRegistry.counter("tasks.stream.dropped");
+        meterRegistry.gauge("tasks.stream.subscribers", subscriberCount);
+    }
+
+    /**
+     * Subscribes to the changes of the tasks of the user.
+     *
+     * @param userId The id of the user.
+     * @return The {@link SseEmitter} the changes are sent to, until the client disconnects or the timeout passes.
+     */
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, createEmitter(timeout), bufferSize);
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(subscriber);
+            return result;
+        });
+        subscriberCount.incrementAndGet();
+
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Creates the emitter of a new subscription.
+     *
+     * @param timeout The time after which the subscription ends, in milliseconds.
+     * @return The new {@link SseEmitter}.
+     */
+    protected SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * Sends a change to the subscribers of the affected users, after the change is committed.
+     *
+     * @param event The {@link TaskChangedEvent} of the changed tasks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskChangeDto change = new TaskChangeDto(event.getType(), event.getTitles());
+        for (Long userId : event.getUserIds()) {
+            Set<Subscriber> set = subscribers.get(userId);
+            if (set != null) {
+                set.forEach(subscriber -> offer(subscriber,
+                        SseEmitter.event().name(change.getType().name()).data(change, MediaType.APPLICATION_JSON)));
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber, so proxies keep the connections open
+     * and connections of clients that went away are detected.
+     */
+    @Scheduled(fixedDelayString = "${tasks.stream.heartbeat:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> offer(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Completes all subscriptions and stops the senders when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues an event for the subscriber and schedules sending it, unless sending is already scheduled.
+     * Drops the subscriber if its buffer is full.
+     *
+     * @param subscriber The subscriber.
+     * @param event      The event to send.
+     */
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            log.warn("Dropping slow task feed subscriber of user '{}'", subscriber.userId);
+            dropped.increment();
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    /**
+     * Schedules sending the queued events of the subscriber, unless sending is already scheduled.
+     *
+     * @param subscriber The subscriber.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Sends the queued events of the subscriber. Removes the subscriber if the connection is broken.
+     *
+     * @param subscriber The subscriber.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Removes the subscriber, once.
+     *
+     * @param subscriber The subscriber.
+     */
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /** A connection subscribed to the changes of a user's tasks */
+    private static class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
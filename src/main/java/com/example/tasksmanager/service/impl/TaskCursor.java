@@ -0,0 +1,62 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.dto.TaskView;
+import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Base64;
+
+/**
+ * Position of a task in the list of tasks ordered by date and id.
+ * Clients receive it as an opaque string and pass it back to load the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+
+    /** The deadline of the last task of the previous page */
+    private final Date date;
+
+    /** The id of the last task of the previous page */
+    private final Integer id;
+
+    /**
+     * Creates the cursor pointing right after the given task.
+     *
+     * @param task the last task of a page
+     * @return the cursor of the next page
+     */
+    public static TaskCursor after(TaskView task) {
+        return new TaskCursor(task.getDate(), task.getId());
+    }
+
+    /**
+     * Encodes the cursor into an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = date.toString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded {@link TaskCursor}
+     * @throws ErrorInputDataException if the cursor is incorrect
+     */
+    public static TaskCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(':');
+            return new TaskCursor(Date.valueOf(value.substring(0, separator)), Integer.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ErrorInputDataException("Incorrect cursor '" + cursor + "'");
+        }
+    }
+}
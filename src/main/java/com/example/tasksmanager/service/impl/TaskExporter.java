@@ -0,0 +1,172 @@
+package com.example.tasksmanager.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams all tasks of a user to an output stream as NDJSON or CSV.
+ * The rows are read through a forward-only cursor that fetches a configured number of rows at a time,
+ * inside a read-only transaction, and every row is written as soon as it is read.
+ * So the memory used does not depend on the number of tasks, and the first rows are sent right away.
+ */
+@Component
+@Slf4j
+public class TaskExporter {
+
+    private static final String EXPORT_QUERY =
+            "select id, title, description, date from tasks where user_id = ? order by date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public TaskExporter(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        @Value("${tasks.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes all tasks of the user to the output stream.
+     *
+     * @param userId The id of the user.
+     * @param format The format of the export.
+     * @param out    The output stream, which is flushed but not closed.
+     */
+    public void export(Long userId, TaskFileFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == TaskFileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        long rows = transactionTemplate.execute(status -> {
+            long[] count = {0};
+            jdbcTemplate.query(EXPORT_QUERY, rs -> {
+                rowWriter.write(rs);
+                if (++count[0] == 1) {
+                    rowWriter.flush();
+                }
+            }, userId);
+            return count[0];
+        });
+        rowWriter.flush();
+        log.info("Exported {} tasks of user {} as {}", rows, userId, format);
+    }
+
+    /** Writes the rows of the export */
+    private abstract static class RowWriter {
+
+        protected final Writer writer;
+
+        protected RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Writes the current row of the result set.
+         *
+         * @param rs The result set.
+         */
+        abstract void write(ResultSet rs) throws SQLException;
+
+        /**
+         * Flushes the written rows to the output stream.
+         */
+        void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Writes every row as a JSON object on its own line */
+    private class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) {
+            super(writer);
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(writer);
+                this.generator.setRootValueSeparator(null);
+                this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getInt("id"));
+                generator.writeStringField("title", rs.getString("title"));
+                generator.writeStringField("description", rs.getString("description"));
+                generator.writeStringField("date", rs.getDate("date").toString());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void flush() {
+            try {
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            super.flush();
+        }
+    }
+
+    /** Writes every row as a CSV record, after a header record */
+    private static class CsvRowWriter extends RowWriter {
+
+        private CsvRowWriter(Writer writer) {
+            super(writer);
+            try {
+                writer.write("id,title,description,date\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException {
+            try {
+                writer.write(Integer.toString(rs.getInt("id")));
+                writer.write(',');
+                Csv.writeField(writer, rs.getString("title"));
+                writer.write(',');
+                Csv.writeField(writer, rs.getString("description"));
+                writer.write(',');
+                writer.write(rs.getDate("date").toString());
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
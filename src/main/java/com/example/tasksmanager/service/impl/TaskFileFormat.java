@@ -0,0 +1,42 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import lombok.Getter;
+
+/**
+ * File formats tasks are exported to and imported from.
+ */
+@Getter
+public enum TaskFileFormat {
+    /** One JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** RFC 4180 CSV with a header record */
+    CSV("text/csv", "csv");
+
+    /** Content type of the file */
+    private final String contentType;
+
+    /** Extension of the file */
+    private final String extension;
+
+    TaskFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Finds the format by its name, ignoring case.
+     *
+     * @param name The name of the format.
+     * @return The format.
+     * @throws ErrorInputDataException if the format is not supported.
+     */
+    public static TaskFileFormat of(String name) {
+        for (TaskFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new ErrorInputDataException("Unsupported format '" + name + "', use ndjson or csv");
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and validates the tasks of an imported file one record at a time, so any file size is read in constant memory.
+ * Every record has a title, a description, a date in the format yyyy-MM-dd and the username or email of the owner.
+ * A CSV file starts with a header record naming the columns title, description, date and user in any order,
+ * an NDJSON file has one object with these fields per line.
+ * Incorrect records are returned with the reason instead of failing the whole file.
+ */
+public abstract class TaskImportReader {
+
+    /** Maximum length of the title, description and user, as in the tasks and users tables */
+    static final int MAX_FIELD_LENGTH = 255;
+
+    /**
+     * Maximum length of a CSV record or an NDJSON line, protects against an unterminated quote swallowing the rest
+     * of the file and against a file without line breaks being read into memory at once
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    protected final BufferedReader reader;
+    private long line;
+
+    protected TaskImportReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+    }
+
+    /**
+     * Creates a reader of the given format.
+     *
+     * @param format       The format of the file.
+     * @param reader       The reader of the file.
+     * @param objectMapper The mapper parsing NDJSON records.
+     * @return The reader of the records.
+     * @throws ErrorInputDataException if a CSV file has no header or the header misses a column.
+     */
+    public static TaskImportReader of(TaskFileFormat format, Reader reader, ObjectMapper objectMapper) throws IOException {
+        return format == TaskFileFormat.CSV ? new CsvReader(reader) : new NdjsonReader(reader, objectMapper);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or {@code null} at the end of the file.
+     * @throws ErrorInputDataException if a CSV record or an NDJSON line is longer than {@link #MAX_RECORD_LENGTH}.
+     */
+    public Row next() throws IOException {
+        Row row = read(line + 1);
+        if (row != null) {
+            line++;
+        }
+        return row;
+    }
+
+    /**
+     * Reads the next record, skipping empty lines.
+     *
+     * @param line The number of the record, starting with 1 for the first task.
+     * @return The record, or {@code null} at the end of the file.
+     */
+    protected abstract Row read(long line) throws IOException;
+
+    /**
+     * Validates the fields of a record.
+     *
+     * @return The valid record, or the record with the reasons it is incorrect.
+     */
+    static Row validate(long line, String title, String description, String date, String user) {
+        List<String> errors = new ArrayList<>();
+        checkText(errors, "title", title);
+        checkText(errors, "description", description);
+        checkText(errors, "user", user);
+
+        String isoDate = null;
+        if (date == null || date.trim().isEmpty()) {
+            errors.add("date must not be blank");
+        } else {
+            try {
+                isoDate = LocalDate.parse(date.trim()).toString();
+            } catch (DateTimeParseException e) {
+                errors.add("date must have the format yyyy-MM-dd");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            return new Row(line, truncate(title), null, null, null, String.join(", ", errors));
+        }
+        return new Row(line, title, description, isoDate, user.trim(), null);
+    }
+
+    private static void checkText(List<String> errors, String name, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            errors.add(name + " must not be blank");
+        } else if (value.length() > MAX_FIELD_LENGTH) {
+            errors.add(name + " must not be longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_FIELD_LENGTH ? value : value.substring(0, MAX_FIELD_LENGTH);
+    }
+
+    /**
+     * A record of the imported file.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+
+        /** The number of the record, starting with 1 for the first task */
+        private final long line;
+
+        /** The title of the task, shortened for incorrect records */
+        private final String title;
+
+        /** The description of the task, {@code null} for incorrect records */
+        private final String description;
+
+        /** The date of the task in the format yyyy-MM-dd, {@code null} for incorrect records */
+        private final String date;
+
+        /** The username or email of the owner, {@code null} for incorrect records */
+        private final String user;
+
+        /** The reasons the record is incorrect, {@code null} for valid records */
+        private final String error;
+
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+
+    /** Reads RFC 4180 CSV records, which may contain quoted separators and line breaks */
+    private static class CsvReader extends TaskImportReader {
+
+        private final int title;
+        private final int description;
+        private final int date;
+        private final int user;
+        private final StringBuilder field = new StringBuilder();
+
+        private CsvReader(Reader reader) throws IOException {
+            super(reader);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new ErrorInputDataException("The CSV file has no header");
+            }
+            this.title = column(header, "title");
+            this.description = column(header, "description");
+            this.date = column(header, "date");
+            this.user = column(header, "user");
+        }
+
+        private static int column(List<String> header, String name) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            throw new ErrorInputDataException("The CSV header has no column '" + name + "'");
+        }
+
+        @Override
+        protected Row read(long line) throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+            return validate(line, get(record, title), get(record, description), get(record, date), get(record, user));
+        }
+
+        private static String get(List<String> record, int index) {
+            return index < record.size() ? record.get(index) : null;
+        }
+
+        /**
+         * Reads the fields of the next record.
+         *
+         * @return The fields, or {@code null} at the end of the file.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            int length = 0;
+            boolean quoted = false;
+            field.setLength(0);
+            while (true) {
+                if (c < 0) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (++length > MAX_RECORD_LENGTH) {
+                    throw new ErrorInputDataException("A CSV record is longer than " + MAX_RECORD_LENGTH + " characters");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    /** Reads one JSON object per line */
+    private static class NdjsonReader extends TaskImportReader {
+
+        private final ObjectMapper objectMapper;
+        private final StringBuilder text = new StringBuilder();
+
+        private NdjsonReader(Reader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected Row read(long line) throws IOException {
+            String text;
+            do {
+                text = readLine();
+                if (text == null) {
+                    return null;
+                }
+            } while (text.trim().isEmpty());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, null, null, null, "incorrect JSON");
+            }
+            if (!node.isObject()) {
+                return new Row(line, null, null, null, null, "incorrect JSON");
+            }
+            return validate(line, text(node, "title"), text(node, "description"), text(node, "date"), text(node, "user"));
+        }
+
+        /**
+         * Reads the next line, ended by \n, \r\n or \r.
+         *
+         * @return The line without the line break, or {@code null} at the end of the file.
+         */
+        private String readLine() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            text.setLength(0);
+            while (c >= 0 && c != '\n' && c != '\r') {
+                if (text.length() == MAX_RECORD_LENGTH) {
+                    throw new ErrorInputDataException("An NDJSON line is longer than " + MAX_RECORD_LENGTH + " characters");
+                }
+                text.append((char) c);
+                c = reader.read();
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+            }
+            return text.toString();
+        }
+
+        private static String text(JsonNode node, String name) {
+            JsonNode value = node.get(name);
+            return value == null || !value.isTextual() ? null : value.asText();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.dto.TaskImportResultDto;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Imports files with millions of tasks through the Postgres COPY protocol.
+ * The file is read and validated in a single streaming pass and every record is copied into a temporary staging table,
+ * incorrect records together with the reason. The staging table is then merged into the tasks table with a few
+ * set-based statements in the same transaction: the owners are resolved by username or email, the first record
+ * of every title wins, and titles that already exist are skipped.
+ * Skipped records are stored in an error report that can be downloaded by the id of the import until it expires.
+ */
+@Component
+@Slf4j
+public class TaskImporter {
+
+    /** Allocation size of the tasks id sequence, must match the sequence generator of {@code TaskEntity} */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String CREATE_STAGING =
+            "create temporary table task_import_staging (line bigint not null, title text, description text, " +
+            "date date, user_ref text, error text) on commit drop";
+
+    private static final String COPY_STAGING =
+            "copy task_import_staging (line, title, description, date, user_ref, error) from stdin with (format csv)";
+
+    private static final String RESOLVE_USERS =
+            "create temporary table task_import_users on commit drop as " +
+            "select r.user_ref, coalesce(by_username.id, by_email.id) as user_id, false as imported " +
+            "from (select distinct user_ref from task_import_staging where error is null) r " +
+            "left join users by_username on by_username.username = r.user_ref " +
+            "left join users by_email on by_email.email = r.user_ref";
+
+    private static final String REPORT_INVALID =
+            "insert into task_import_errors (import_id, line, title, reason) " +
+            "select ?, line, title, error from task_import_staging where error is not null";
+
+    private static final String REPORT_UNKNOWN_USERS =
+            "insert into task_import_errors (import_id, line, title, reason) " +
+            "select ?, s.line, s.title, 'unknown user ' || s.user_ref " +
+            "from task_import_staging s join task_import_users u on u.user_ref = s.user_ref " +
+            "where s.error is null and u.user_id is null";
+
+    /*
+     * The ids are taken from the sequence in blocks the same way Hibernate's pooled optimizer does,
+     * one nextval per block that hands out the block's ids below the returned value.
+     * "on conflict" skips titles inserted concurrently after the staging table was filled.
+     * The users that got at least one task are marked, so only their changes are published.
+     */
+    private static final String MERGE =
+            "with candidates as (" +
+            "    select s.line, s.title, s.description, s.date, u.user_id, " +
+            "           row_number() over (partition by s.title order by s.line) as occurrence " +
+            "    from task_import_staging s join task_import_users u on u.user_ref = s.user_ref " +
+            "    where s.error is null and u.user_id is not null" +
+            "), firsts as (" +
+            "    select c.*, row_number() over (order by c.line) - 1 as seq from candidates c where c.occurrence = 1" +
+            "), blocks as (" +
+            "    select block, nextval('tasks_id_seq') as hi " +
+            "    from generate_series(0, ((select count(*) from firsts) + " + (ID_ALLOCATION_SIZE - 1) + ") / " +
+                    ID_ALLOCATION_SIZE + " - 1) as block" +
+            "), inserted as (" +
+            "    insert into tasks (id, title, description, date, user_id) " +
+            "    select b.hi - " + (ID_ALLOCATION_SIZE - 1) + " + f.seq % " + ID_ALLOCATION_SIZE + ", " +
+            "           f.title, f.description, f.date, f.user_id " +
+            "    from firsts f join blocks b on b.block = f.seq / " + ID_ALLOCATION_SIZE +
+            "    on conflict (title) do nothing " +
+            "    returning title, user_id" +
+            "), imported_users as (" +
+            "    update task_import_users set imported = true where user_id in (select user_id from inserted)" +
+            ") " +
+            "insert into task_import_errors (import_id, line, title, reason) " +
+            "select ?, c.line, c.title, " +
+            "       case when c.occurrence > 1 then 'duplicate title in the file' else 'title already exists' end " +
+            "from candidates c " +
+            "where c.occurrence > 1 or not exists (select 1 from inserted i where i.title = c.title)";
+
+    private static final String IMPORTED_USERS =
+            "select distinct user_id from task_import_users where imported";
+
+    private static final String REPORT_QUERY =
+            "select line, title, reason from task_import_errors where import_id = ? order by line";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long reportTtl;
+
+    public TaskImporter(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${tasks.import.fetch-size:1000}") int fetchSize,
+                        @Value("${tasks.import.report-ttl:86400000}") long reportTtl) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.reportTtl = reportTtl;
+    }
+
+    /**
+     * Imports the tasks of a file in a single transaction.
+     *
+     * @param in     The content of the file, read once.
+     * @param format The format of the file.
+     * @return The numbers of imported and skipped records, and the id of the error report.
+     * @throws com.example.tasksmanager.exceptions.ErrorInputDataException if the file can not be read as the given format.
+     */
+    public TaskImportResultDto importTasks(InputStream in, TaskFileFormat format) {
+        UUID importId = UUID.randomUUID();
+        long started = System.nanoTime();
+
+        TaskImportResultDto result = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CREATE_STAGING);
+            long total = copyToStaging(in, format);
+            jdbcTemplate.execute("analyze task_import_staging");
+            jdbcTemplate.execute(RESOLVE_USERS);
+
+            long invalid = jdbcTemplate.update(REPORT_INVALID, importId) + jdbcTemplate.update(REPORT_UNKNOWN_USERS, importId);
+            long duplicates = jdbcTemplate.update(MERGE, importId);
+            for (Long userId : jdbcTemplate.queryForList(IMPORTED_USERS, Long.class)) {
+                eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, Collections.emptyList(), userId, null));
+            }
+            return new TaskImportResultDto(importId, total, total - invalid - duplicates, duplicates, invalid);
+        });
+
+        log.info("Imported {} of {} tasks in {} ms, import {}", result.getImported(), result.getTotal(),
+                (System.nanoTime() - started) / 1_000_000, importId);
+        return result;
+    }
+
+    /**
+     * Reads, validates and copies all records of the file into the staging table.
+     *
+     * @return The number of records.
+     */
+    private long copyToStaging(InputStream in, TaskFileFormat format) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        PGCopyOutputStream copy = null;
+        try {
+            copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, 64 * 1024);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 64 * 1024);
+            TaskImportReader reader = TaskImportReader.of(format, new InputStreamReader(in, StandardCharsets.UTF_8), objectMapper);
+
+            long total = 0;
+            for (TaskImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                writeRow(writer, row);
+                total++;
+            }
+            writer.close();
+            return total;
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY", COPY_STAGING, e);
+        } catch (IOException e) {
+            cancel(copy);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            cancel(copy);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a record as a COPY CSV line. Missing values are left empty, which COPY reads as null.
+     */
+    private static void writeRow(Writer writer, TaskImportReader.Row row) throws IOException {
+        writer.write(Long.toString(row.getLine()));
+        writer.write(',');
+        writeNullable(writer, row.getTitle());
+        writer.write(',');
+        writeNullable(writer, row.getDescription());
+        writer.write(',');
+        writeNullable(writer, row.getDate());
+        writer.write(',');
+        writeNullable(writer, row.getUser());
+        writer.write(',');
+        writeNullable(writer, row.getError());
+        writer.write('\n');
+    }
+
+    private static void writeNullable(Writer writer, String value) throws IOException {
+        if (value != null) {
+            Csv.writeQuoted(writer, value);
+        }
+    }
+
+    private static void cancel(PGCopyOutputStream copy) {
+        if (copy != null && copy.isActive()) {
+            try {
+                copy.cancelCopy();
+            } catch (SQLException e) {
+                log.warn("Failed to cancel the copy of an import", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the error report of an import as CSV, in the order of the records in the file.
+     *
+     * @param importId The id of the import.
+     * @param out      The output stream, which is flushed but not closed.
+     */
+    public void writeReport(UUID importId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        readOnlyTransactionTemplate.execute(status -> {
+            try {
+                writer.write("line,title,reason\r\n");
+                jdbcTemplate.query(REPORT_QUERY, rs -> {
+                    try {
+                        writer.write(Long.toString(rs.getLong("line")));
+                        writer.write(',');
+                        String title = rs.getString("title");
+                        if (title != null) {
+                            Csv.writeField(writer, title);
+                        }
+                        writer.write(',');
+                        Csv.writeField(writer, rs.getString("reason"));
+                        writer.write("\r\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, importId);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes the error reports of imports older than the configured time to live.
+     */
+    @Scheduled(fixedDelayString = "${tasks.import.cleanup-interval:3600000}")
+    public void deleteExpiredReports() {
+        int deleted = jdbcTemplate.update("delete from task_import_errors where created_at < ?",
+                Timestamp.from(Instant.now().minusMillis(reportTtl)));
+        if (deleted > 0) {
+            log.info("Deleted {} expired import errors", deleted);
+        }
+    }
+}
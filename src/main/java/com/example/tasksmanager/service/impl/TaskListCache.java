@@ -0,0 +1,75 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.dto.TaskResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of the first pages of the task list of every user, keyed by user id and page parameters.
+ * The version of the tasks of the user from {@link TaskVersionRegistry} is part of the key of the cached pages.
+ * A change of the tasks moves the user to a new version after commit, so the old pages are never read again
+ * and are evicted later. A page loaded concurrently with a change is stored under the version read before
+ * loading it, so a stale page is never served after the change is committed.
+ * Hit, miss and eviction metrics are published under the "tasks.list" cache name.
+ */
+@Component
+public class TaskListCache {
+
+    private final TaskVersionRegistry taskVersionRegistry;
+    private final Cache<PageKey, List<TaskResponseDto>> pages;
+    private final int maxPages;
+
+    public TaskListCache(TaskVersionRegistry taskVersionRegistry,
+                         MeterRegistry meterRegistry,
+                         @Value("${tasks.list-cache.max-size:10000}") long maxSize,
+                         @Value("${tasks.list-cache.ttl:300000}") long ttl,
+                         @Value("${tasks.list-cache.max-pages:3}") int maxPages) {
+        this.taskVersionRegistry = taskVersionRegistry;
+        this.maxPages = maxPages;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "tasks.list");
+    }
+
+    /**
+     * Returns a page of the task list of the user, loading it only if it is not cached.
+     * Only the first pages are cached, deeper pages are always loaded.
+     *
+     * @param userId The id of the user.
+     * @param limit  The maximum number of tasks on the page.
+     * @param offset The page number (zero-based index).
+     * @param loader Loads the page from the database.
+     * @return The unmodifiable list of the tasks on the page.
+     */
+    public List<TaskResponseDto> get(Long userId, int limit, int offset, Supplier<List<TaskResponseDto>> loader) {
+        if (offset >= maxPages) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(userId, taskVersionRegistry.current(userId), limit, offset);
+        return pages.get(key, k -> Collections.unmodifiableList(loader.get()));
+    }
+
+    /** Key of a cached page */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class PageKey {
+        private final Long userId;
+        private final long version;
+        private final int limit;
+        private final int offset;
+    }
+}
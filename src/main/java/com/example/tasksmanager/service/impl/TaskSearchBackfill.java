@@ -0,0 +1,69 @@
+package com.example.tasksmanager.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Fills the search vector of the tasks that existed before the column was added.
+ * New and changed tasks get their vector from a trigger, so this only walks the old rows once,
+ * in batches by id that are committed one by one, so no long lock or transaction is held.
+ * Runs in the background after start, several nodes running it at once only skip each other's rows.
+ * Until it finishes, the old tasks are not found by the search.
+ */
+@Component
+@Slf4j
+public class TaskSearchBackfill {
+
+    private static final String BACKFILL_BATCH =
+            "with batch as (select id from tasks where id > ? order by id limit ?), " +
+            "updated as (update tasks t set search_vector = tasks_search_vector(t.title, t.description) " +
+            "    from batch where t.id = batch.id and t.search_vector is null returning t.id) " +
+            "select (select max(id) from batch) as last_id, (select count(*) from updated) as updated";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public TaskSearchBackfill(JdbcTemplate jdbcTemplate, @Value("${tasks.search.backfill-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts the backfill if any task has no search vector yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Boolean missing = jdbcTemplate.queryForObject("select exists (select 1 from tasks where search_vector is null)", Boolean.class);
+        if (Boolean.TRUE.equals(missing)) {
+            Thread thread = new Thread(this::backfill, "task-search-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void backfill() {
+        long started = System.nanoTime();
+        long total = 0;
+        int lastId = 0;
+        try {
+            while (true) {
+                Map<String, Object> batch = jdbcTemplate.queryForMap(BACKFILL_BATCH, lastId, batchSize);
+                Number last = (Number) batch.get("last_id");
+                if (last == null) {
+                    break;
+                }
+                lastId = last.intValue();
+                total += ((Number) batch.get("updated")).longValue();
+            }
+            log.info("Filled the search vector of {} tasks in {} ms", total, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to fill the search vector after task {}, the next start continues", lastId, e);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.tasksmanager.service.impl;
 
+import com.example.tasksmanager.dto.BatchTaskResultDto;
+import com.example.tasksmanager.dto.BulkTaskRequestDto;
 import com.example.tasksmanager.dto.CreateTaskDto;
+import com.example.tasksmanager.dto.PatchTaskDto;
 import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.dto.TaskSearchView;
+import com.example.tasksmanager.dto.TaskSliceDto;
+import com.example.tasksmanager.dto.TaskView;
 import com.example.tasksmanager.dto.UserResponseDto;
+import com.example.tasksmanager.event.TaskChangedEvent;
 import com.example.tasksmanager.exceptions.*;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
 import com.example.tasksmanager.mapper.TaskMapper;
 import com.example.tasksmanager.mapper.UserMapper;
 import com.example.tasksmanager.model.RoleEntity;
@@ -13,110 +21,453 @@ import com.example.tasksmanager.repository.TaskRepository;
 import com.example.tasksmanager.repository.UserRepository;
 import com.example.tasksmanager.service.TaskService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the task service providing operations related to tasks.
+ * Every change of a task runs as a single conditional statement that also checks the owner of the task.
  */
 @Service
 @Slf4j
 public class TaskServiceImpl implements TaskService {
+    /** The unique index on the task title, which decides which of the concurrent writes takes a title. */
+    static final String TITLE_UNIQUE_INDEX = "tasks_title_uindex";
+
+    /** The maximum length of a search query, longer queries only make the search slower. */
+    static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    /** The bounds of the open ends of the overdue and upcoming ranges. */
+    private static final Date FIRST_DATE = Date.valueOf("0001-01-01");
+    private static final Date LAST_DATE = Date.valueOf("9999-12-31");
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskListCache taskListCache;
+    private final TaskVersionRegistry taskVersionRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /** The maximum number of tasks changed in one transaction by the bulk operations. */
+    @Value("${tasks.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
-    public TaskServiceImpl(TaskRepository taskRepository, UserRepository userRepository, UserMapper userMapper, TaskMapper taskMapper) {
+
+    public TaskServiceImpl(TaskRepository taskRepository, UserRepository userRepository, UserMapper userMapper, TaskMapper taskMapper, TransactionTemplate transactionTemplate,
+                           TaskListCache taskListCache, TaskVersionRegistry taskVersionRegistry,
+                           ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.taskMapper = taskMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.taskListCache = taskListCache;
+        this.taskVersionRegistry = taskVersionRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
 
     /**
      * Creates a new task and assigns it to the specified user.
-     * Checks if a task with the same title already exists. If not, the task is saved and assigned to the user.
+     * The task is inserted right away, a taken title is detected by the unique index on the title.
      *
      * @param createTaskDto DTO containing the task details.
-     * @param username      The username of the user creating the task.
+     * @param user          The authenticated user creating the task.
      * @throws ErrorCreateTaskException if there is an error creating the task.
      * @throws ErrorInputDataException  if a task with the given title already exists.
      */
     @Transactional
-    public void create(CreateTaskDto createTaskDto, String username) throws ErrorCreateTaskException {
+    public void create(CreateTaskDto createTaskDto, AuthenticatedUser user) throws ErrorCreateTaskException {
 
-        if (taskRepository.existsByTitle(createTaskDto.getTitle())) {
+        TaskEntity task = taskMapper.toTaskEntity(createTaskDto);
+        task.setUser(userRepository.getReferenceById(user.getId()));
+
+        try {
+            taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException e) {
+            if (!isTitleTaken(e)) {
+                throw e;
+            }
             log.error("Task '{}' already exist", createTaskDto.getTitle());
             throw new ErrorInputDataException("Task "+ createTaskDto.getTitle() +" already exist");
         }
+        publish(TaskChangedEvent.Type.CREATED, createTaskDto.getTitle(), user.getId(), null);
+        log.info("Success create Task '{}' for user '{}'", createTaskDto.getTitle(), user.getUsername());
+    }
 
-        UserEntity user = findUserByEmail(username);
-        TaskEntity task = taskMapper.toTaskEntity(createTaskDto);
-        task.setUser(user);
+    /**
+     * Creates a batch of tasks and assigns them to the specified user.
+     * The titles are checked with a single query, and the new tasks are inserted in JDBC batches.
+     * Tasks with incorrect data or already taken titles are skipped and reported in the result.
+     * If a title is taken by a concurrent request after the check, the whole batch is rejected.
+     *
+     * @param createTaskDtos DTOs containing the details of the tasks.
+     * @param user           The authenticated user creating the tasks.
+     * @return The results of creating every task, in the order of the given DTOs.
+     * @throws ErrorCreateTaskException if there is an error creating the tasks.
+     * @throws ErrorInputDataException  if a title was taken concurrently.
+     */
+    @Transactional
+    public List<BatchTaskResultDto> createBatch(List<CreateTaskDto> createTaskDtos, AuthenticatedUser user) throws ErrorCreateTaskException {
+        Set<String> titles = createTaskDtos.stream()
+                .map(CreateTaskDto::getTitle)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> taken = titles.isEmpty() ? new HashSet<>() : new HashSet<>(taskRepository.findExistingTitles(titles));
 
-        taskRepository.save(task);
-        log.info("Success create Task '{}' for user '{}'", createTaskDto.getTitle(), username);
+        UserEntity owner = userRepository.getReferenceById(user.getId());
+        List<BatchTaskResultDto> results = new ArrayList<>();
+        List<TaskEntity> tasks = new ArrayList<>();
+
+        for (CreateTaskDto createTaskDto : createTaskDtos) {
+            String title = createTaskDto.getTitle();
+            if (isBlank(title) || isBlank(createTaskDto.getDescription()) || createTaskDto.getDate() == null) {
+                results.add(new BatchTaskResultDto(title, BatchTaskResultDto.Status.INVALID, "Title, description and date are required"));
+            } else if (!taken.add(title)) {
+                results.add(new BatchTaskResultDto(title, BatchTaskResultDto.Status.DUPLICATE, "Task " + title + " already exist"));
+            } else {
+                TaskEntity task = taskMapper.toTaskEntity(createTaskDto);
+                task.setUser(owner);
+                tasks.add(task);
+                results.add(new BatchTaskResultDto(title, BatchTaskResultDto.Status.CREATED, null));
+            }
+        }
+
+        try {
+            taskRepository.saveAllAndFlush(tasks);
+        } catch (DataIntegrityViolationException e) {
+            if (!isTitleTaken(e)) {
+                throw e;
+            }
+            log.error("Titles of the batch were taken concurrently for user '{}'", user.getUsername());
+            throw new ErrorInputDataException("Some of the titles were taken by another request, try again");
+        }
+        if (!tasks.isEmpty()) {
+            List<String> created = tasks.stream().map(TaskEntity::getTitle).collect(Collectors.toList());
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, created, user.getId(), null));
+        }
+        log.info("Success create {} of {} tasks for user '{}'", tasks.size(), createTaskDtos.size(), user.getUsername());
+        return results;
     }
 
     /**
      * Deletes a task with the specified title if the user has permission.
      *
      * @param title    The title of the task to delete.
-     * @param username The username of the user requesting the deletion.
+     * @param user     The authenticated user requesting the deletion.
      * @throws ErrorDeleteTaskException if there is an error deleting the task.
      * @throws ErrorPermissionException if the user does not have permission to delete the task.
      */
     @Transactional
-    public void delete(String title, String username) throws ErrorDeleteTaskException {
-        TaskEntity task = getTaskIfUserHasPermission(title, username);
-        taskRepository.delete(task);
-        log.info("Success delete Task '{}' for user '{}'", title, username);
+    public void delete(String title, AuthenticatedUser user) throws ErrorDeleteTaskException {
+        checkModified(taskRepository.deleteOwned(title, user.getId()), title, user);
+        publish(TaskChangedEvent.Type.DELETED, title, user.getId(), null);
+        log.info("Success delete Task '{}' for user '{}'", title, user.getUsername());
+    }
+
+    /**
+     * Deletes the selected tasks of the user.
+     * The tasks are deleted in chunks, each in its own transaction, so no transaction locks too many rows.
+     * The change of every committed chunk is published with the titles it deleted,
+     * so a later failing chunk does not hide the chunks already committed.
+     *
+     * @param request DTO selecting the tasks by titles or all tasks of the user.
+     * @param user    The authenticated user requesting the deletion.
+     * @return The number of deleted tasks. Tasks of other users are not deleted and not counted.
+     * @throws ErrorInputDataException if the tasks are not selected correctly.
+     */
+    public int bulkDelete(BulkTaskRequestDto request, AuthenticatedUser user) {
+        validateBulk(request);
+
+        Consumer<List<String>> committed = titles -> publish(TaskChangedEvent.Type.DELETED, titles, user.getId(), null);
+        int deleted;
+        if (request.isAll()) {
+            deleted = runUntilDone(() -> taskRepository.deleteOwnedChunk(user.getId(), bulkChunkSize), committed);
+        } else {
+            deleted = runInChunks(request.getTitles(), titles -> taskRepository.deleteOwnedByTitles(titles, user.getId()), committed);
+        }
+
+        log.info("Success delete {} tasks for user '{}'", deleted, user.getUsername());
+        return deleted;
+    }
+
+    /**
+     * Assigns the selected tasks of the user to another user.
+     * The tasks are updated in chunks, each in its own transaction, so no transaction locks too many rows.
+     * The change of every committed chunk is published with the titles it reassigned.
+     *
+     * @param request DTO selecting the tasks by titles or all tasks of the user, and the new user.
+     * @param user    The authenticated user requesting the change.
+     * @return The number of reassigned tasks. Tasks of other users are not changed and not counted.
+     * @throws ErrorInputDataException if the tasks are not selected correctly or the new user does not exist.
+     */
+    public int bulkReassign(BulkTaskRequestDto request, AuthenticatedUser user) {
+        validateBulk(request);
+        if (isBlank(request.getNewUser())) {
+            throw new ErrorInputDataException("New user is required");
+        }
+
+        Long newUserId = userRepository.findIdByUsername(request.getNewUser())
+                .orElseThrow(() -> new ErrorInputDataException("User '" + request.getNewUser() + "' does not exist"));
+        if (newUserId.equals(user.getId())) {
+            return 0;
+        }
+
+        Consumer<List<String>> committed = titles -> publish(TaskChangedEvent.Type.REASSIGNED, titles, user.getId(), newUserId);
+        int reassigned;
+        if (request.isAll()) {
+            reassigned = runUntilDone(() -> taskRepository.reassignOwnedChunk(user.getId(), newUserId, bulkChunkSize), committed);
+        } else {
+            reassigned = runInChunks(request.getTitles(),
+                    titles -> taskRepository.reassignOwnedByTitles(titles, user.getId(), newUserId), committed);
+        }
+
+        log.info("Success reassign {} tasks of user '{}' to user '{}'", reassigned, user.getUsername(), request.getNewUser());
+        return reassigned;
     }
 
     /**
-     * Retrieves a paginated list of tasks assigned to the specified user.
+     * Validates the selection of the tasks of a bulk operation.
      *
-     * @param username The username of the user whose tasks are being retrieved.
+     * @param request DTO selecting the tasks.
+     * @throws ErrorInputDataException if neither or both the titles and all tasks are selected.
+     */
+    private void validateBulk(BulkTaskRequestDto request) {
+        boolean hasTitles = request.getTitles() != null && !request.getTitles().isEmpty();
+        if (hasTitles == request.isAll()) {
+            throw new ErrorInputDataException("Either titles or all tasks must be selected");
+        }
+    }
+
+    /**
+     * Runs a chunk operation in separate transactions until it changes fewer rows than a full chunk.
+     *
+     * @param chunk     The operation changing at most one chunk of rows.
+     * @param committed Receives the titles changed by every committed chunk.
+     * @return The total number of changed rows.
+     */
+    private int runUntilDone(Supplier<List<String>> chunk, Consumer<List<String>> committed) {
+        int total = 0;
+        List<String> changed;
+        do {
+            changed = transactionTemplate.execute(status -> chunk.get());
+            committed.accept(changed);
+            total += changed.size();
+        } while (changed.size() >= bulkChunkSize);
+        return total;
+    }
+
+    /**
+     * Splits the titles into chunks and runs the operation for every chunk in a separate transaction.
+     *
+     * @param titles    The titles of the tasks.
+     * @param operation The operation changing the tasks with the given titles.
+     * @param committed Receives the titles changed by every committed chunk.
+     * @return The total number of changed rows.
+     */
+    private int runInChunks(List<String> titles, Function<List<String>, List<String>> operation, Consumer<List<String>> committed) {
+        int total = 0;
+        for (int from = 0; from < titles.size(); from += bulkChunkSize) {
+            List<String> chunk = titles.subList(from, Math.min(from + bulkChunkSize, titles.size()));
+            List<String> changed = transactionTemplate.execute(status -> operation.apply(chunk));
+            committed.accept(changed);
+            total += changed.size();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the ETag of the task lists of the specified user.
+     * It changes with every committed change of the tasks assigned to the user,
+     * so it must be read before the list, never after it.
+     *
+     * @param user The authenticated user whose tasks are being retrieved.
+     * @return The quoted ETag of the task lists.
+     */
+    public String tasksETag(AuthenticatedUser user) {
+        return taskVersionRegistry.eTag(user.getId());
+    }
+
+    /**
+     * Retrieves a paginated list of tasks assigned to the specified user, ordered by date.
+     * Only the columns of {@link TaskResponseDto} are loaded, no entities are created.
+     * The first pages are served from the {@link TaskListCache}.
+     *
+     * @param user     The authenticated user whose tasks are being retrieved.
      * @param limit    The maximum number of tasks to retrieve per page.
      * @param offset   The page number to retrieve (zero-based index).
      * @return A list of {@link TaskResponseDto} containing task information.
      */
-    public List<TaskResponseDto> showMyTasks(String username, Integer limit, Integer offset) {
-        UserEntity user = findUserByEmail(username);
-        Page<TaskEntity> page = taskRepository.findByUser(user, PageRequest.of(offset,limit));
+    public List<TaskResponseDto> showMyTasks(AuthenticatedUser user, Integer limit, Integer offset) {
+        return taskListCache.get(user.getId(), limit, offset,
+                () -> taskRepository.findResponsesByUserId(user.getId(), PageRequest.of(offset,limit)));
+    }
+
+    /**
+     * Retrieves a page of tasks assigned to the specified user, ordered by date and id, that follows the given cursor.
+     * Unlike {@link #showMyTasks}, it does not count the tasks and does not skip rows,
+     * so every page costs the same regardless of how deep it is.
+     *
+     * @param user     The authenticated user whose tasks are being retrieved.
+     * @param limit    The maximum number of tasks to retrieve.
+     * @param after    The cursor returned with the previous page, or an empty string for the first page.
+     * @return A {@link TaskSliceDto} containing the tasks and the cursor of the next page.
+     * @throws ErrorInputDataException if the cursor is incorrect.
+     */
+    public TaskSliceDto showMyTasksAfter(AuthenticatedUser user, Integer limit, String after) {
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<TaskView> slice;
+        if (after == null || after.isEmpty()) {
+            slice = taskRepository.findViewsByUserId(user.getId(), pageable);
+        } else {
+            TaskCursor cursor = TaskCursor.decode(after);
+            slice = taskRepository.findViewsByUserIdAfter(user.getId(), cursor.getDate(), cursor.getId(), pageable);
+        }
+
+        List<TaskView> tasks = slice.getContent();
+        String nextCursor = slice.hasNext() ? TaskCursor.after(tasks.get(tasks.size() - 1)).encode() : null;
+        return new TaskSliceDto(taskMapper.toListTaskResponseDtoFromViews(tasks), nextCursor);
+    }
+
+    /**
+     * Retrieves a page of tasks assigned to the specified user with deadlines in the given range,
+     * ordered by date and id, that follows the given cursor.
+     *
+     * @param user     The authenticated user whose tasks are being retrieved.
+     * @param from     The earliest deadline, inclusive.
+     * @param to       The latest deadline, inclusive.
+     * @param limit    The maximum number of tasks to retrieve.
+     * @param after    The cursor returned with the previous page, or {@code null} or an empty string for the first page.
+     * @return A {@link TaskSliceDto} containing the tasks and the cursor of the next page.
+     * @throws ErrorInputDataException if the range is empty or the cursor is incorrect.
+     */
+    public TaskSliceDto showDueTasks(AuthenticatedUser user, Date from, Date to, Integer limit, String after) {
+        if (from.after(to)) {
+            throw new ErrorInputDataException("The start of the range " + from + " is after its end " + to);
+        }
+        return showTasksBetween(user, from, to, limit, after);
+    }
+
+    /**
+     * Retrieves a page of tasks assigned to the specified user whose deadline has passed, oldest first.
+     *
+     * @param user     The authenticated user whose tasks are being retrieved.
+     * @param limit    The maximum number of tasks to retrieve.
+     * @param after    The cursor returned with the previous page, or {@code null} or an empty string for the first page.
+     * @return A {@link TaskSliceDto} containing the tasks and the cursor of the next page.
+     * @throws ErrorInputDataException if the cursor is incorrect.
+     */
+    public TaskSliceDto showOverdueTasks(AuthenticatedUser user, Integer limit, String after) {
+        return showTasksBetween(user, FIRST_DATE, Date.valueOf(LocalDate.now().minusDays(1)), limit, after);
+    }
+
+    /**
+     * Retrieves a page of the nearest deadlines of the tasks assigned to the specified user, starting today.
+     *
+     * @param user     The authenticated user whose tasks are being retrieved.
+     * @param limit    The maximum number of tasks to retrieve.
+     * @param after    The cursor returned with the previous page, or {@code null} or an empty string for the first page.
+     * @return A {@link TaskSliceDto} containing the tasks and the cursor of the next page.
+     * @throws ErrorInputDataException if the cursor is incorrect.
+     */
+    public TaskSliceDto showUpcomingTasks(AuthenticatedUser user, Integer limit, String after) {
+        return showTasksBetween(user, Date.valueOf(LocalDate.now()), LAST_DATE, limit, after);
+    }
+
+    /**
+     * Retrieves a page of tasks with deadlines in the given range that follows the given cursor.
+     */
+    private TaskSliceDto showTasksBetween(AuthenticatedUser user, Date from, Date to, Integer limit, String after) {
+        Pageable pageable = PageRequest.of(0, limit);
+        TaskCursor cursor = after == null || after.isEmpty() ? null : TaskCursor.decode(after);
+        Slice<TaskView> slice;
+        // a cursor before the range, e.g. of the upcoming tasks of yesterday, starts from the beginning of the range
+        if (cursor == null || cursor.getDate().before(from)) {
+            slice = taskRepository.findViewsByUserIdAndDateBetween(user.getId(), from, to, pageable);
+        } else {
+            slice = taskRepository.findViewsByUserIdAndDateBetweenAfter(user.getId(), to, cursor.getDate(), cursor.getId(), pageable);
+        }
+
+        List<TaskView> tasks = slice.getContent();
+        String nextCursor = slice.hasNext() ? TaskCursor.after(tasks.get(tasks.size() - 1)).encode() : null;
+        return new TaskSliceDto(taskMapper.toListTaskResponseDtoFromViews(tasks), nextCursor);
+    }
+
+    /**
+     * Searches the tasks assigned to the specified user by the words of their titles and descriptions,
+     * best matches first, and returns the page that follows the given cursor.
+     *
+     * @param user     The authenticated user whose tasks are searched.
+     * @param query    The query in the web search syntax: words, "quoted phrases", or and -excluded words.
+     * @param limit    The maximum number of tasks to retrieve.
+     * @param after    The cursor returned with the previous page, or {@code null} or an empty string for the first page.
+     * @return A {@link TaskSliceDto} containing the tasks and the cursor of the next page.
+     * @throws ErrorInputDataException if the query is blank or too long, or the cursor is incorrect.
+     */
+    public TaskSliceDto searchMyTasks(AuthenticatedUser user, String query, Integer limit, String after) {
+        if (isBlank(query) || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new ErrorInputDataException("The search query must not be blank or longer than " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+
+        // one more task than requested tells whether there is a next page
+        List<TaskSearchView> found;
+        if (after == null || after.isEmpty()) {
+            found = taskRepository.search(user.getId(), query, limit + 1);
+        } else {
+            TaskSearchCursor cursor = TaskSearchCursor.decode(after);
+            found = taskRepository.searchAfter(user.getId(), query, cursor.getRank(), cursor.getId(), limit + 1);
+        }
 
-        return taskMapper.toListTaskResponseDto(page.getContent());
+        boolean hasNext = found.size() > limit;
+        List<TaskSearchView> tasks = hasNext ? found.subList(0, limit) : found;
+        String nextCursor = hasNext ? TaskSearchCursor.after(tasks.get(tasks.size() - 1)).encode() : null;
+        return new TaskSliceDto(taskMapper.toListTaskResponseDtoFromViews(new ArrayList<TaskView>(tasks)), nextCursor);
     }
 
     /**
      * Updates the title of a task if the user has permission and the new title is not taken.
+     * The title is changed right away, a taken title is detected by the unique index on the title.
      *
      * @param title     The current title of the task to update.
      * @param newTitle  The new title for the task.
-     * @param username  The username of the user requesting the update.
+     * @param user      The authenticated user requesting the update.
      * @throws ErrorEditTaskException  if there is an error updating the task.
      * @throws ErrorInputDataException if the new title is already taken.
      * @throws ErrorPermissionException if the user does not have permission to edit the task.
      */
     @Transactional
-    public void editTitle(String title, String newTitle, String username) throws ErrorEditTaskException {
-        if(taskRepository.existsByTitle(newTitle)){
-            log.error("Title '" + newTitle + "'is already taken");
-            throw new ErrorInputDataException("Title '" + newTitle + "'is already taken");
+    public void editTitle(String title, String newTitle, AuthenticatedUser user) throws ErrorEditTaskException {
+        int modified;
+        try {
+            modified = taskRepository.updateTitle(title, user.getId(), newTitle);
+        } catch (DataIntegrityViolationException e) {
+            throw titleTaken(e, newTitle);
         }
 
-        TaskEntity task = getTaskIfUserHasPermission(title, username);
-
-        task.setTitle(newTitle);
-        taskRepository.save(task);
-        log.info("Successfully edited task '{}' for user '{}'", title, username);
+        checkModified(modified, title, user);
+        publish(TaskChangedEvent.Type.UPDATED, newTitle, user.getId(), null);
+        log.info("Successfully edited task '{}' for user '{}'", title, user.getUsername());
     }
 
     /**
@@ -124,16 +475,15 @@ public class TaskServiceImpl implements TaskService {
      *
      * @param title        The title of the task to update.
      * @param newDescription The new description for the task.
-     * @param username     The username of the user requesting the update.
+     * @param user         The authenticated user requesting the update.
      * @throws ErrorEditTaskException if there is an error updating the task.
      * @throws ErrorPermissionException if the user does not have permission to edit the task.
      */
     @Transactional
-    public void editDescription(String title, String newDescription, String username) throws ErrorEditTaskException {
-        TaskEntity task = getTaskIfUserHasPermission(title, username);
-        task.setDescription(newDescription);
-        taskRepository.save(task);
-        log.info("Successfully edited task '{}' for user '{}'", title, username);
+    public void editDescription(String title, String newDescription, AuthenticatedUser user) throws ErrorEditTaskException {
+        checkModified(taskRepository.updateDescription(title, user.getId(), newDescription), title, user);
+        publish(TaskChangedEvent.Type.UPDATED, title, user.getId(), null);
+        log.info("Successfully edited task '{}' for user '{}'", title, user.getUsername());
     }
 
     /**
@@ -141,16 +491,15 @@ public class TaskServiceImpl implements TaskService {
      *
      * @param title       The title of the task to update.
      * @param newDate     The new date for the task.
-     * @param username    The username of the user requesting the update.
+     * @param user        The authenticated user requesting the update.
      * @throws ErrorEditTaskException if there is an error updating the task.
      * @throws ErrorPermissionException if the user does not have permission to edit the task.
      */
     @Transactional
-    public void editDate(String title, Date newDate, String username) throws ErrorEditTaskException {
-        TaskEntity task = getTaskIfUserHasPermission(title, username);
-        task.setDate(newDate);
-        taskRepository.save(task);
-        log.info("Successfully edited task '{}' for user '{}'", title, username);
+    public void editDate(String title, Date newDate, AuthenticatedUser user) throws ErrorEditTaskException {
+        checkModified(taskRepository.updateDate(title, user.getId(), newDate), title, user);
+        publish(TaskChangedEvent.Type.UPDATED, title, user.getId(), null);
+        log.info("Successfully edited task '{}' for user '{}'", title, user.getUsername());
     }
 
 
@@ -159,65 +508,172 @@ public class TaskServiceImpl implements TaskService {
      *
      * @param title      The title of the task to update.
      * @param newUser    The username of the new user to assign to the task.
-     * @param username   The username of the current user requesting the change.
+     * @param user       The authenticated user requesting the change.
      * @throws ErrorEditTaskException  if there is an error updating the task.
      * @throws ErrorInputDataException if the new user does not exist.
      * @throws ErrorPermissionException if the user does not have permission to edit the task.
      */
     @Transactional
-    public void editUser(String title, String newUser, String username) throws ErrorEditTaskException {
-        TaskEntity task = getTaskIfUserHasPermission(title, username);
-
-        UserEntity newUserEntity = userRepository.findByUsername(newUser)
+    public void editUser(String title, String newUser, AuthenticatedUser user) throws ErrorEditTaskException {
+        Long newUserId = userRepository.findIdByUsername(newUser)
                 .orElseThrow(() -> new ErrorInputDataException("User '" + newUser + "' does not exist"));
 
-        task.setUser(newUserEntity);
-        taskRepository.save(task);
-        log.info("Successfully edited task '{}' for user '{}'", title, username);
+        checkModified(taskRepository.updateUser(title, user.getId(), newUserId), title, user);
+        publish(TaskChangedEvent.Type.REASSIGNED, title, user.getId(), newUserId);
+        log.info("Successfully edited task '{}' for user '{}'", title, user.getUsername());
     }
 
     /**
-     * Retrieves a task by title and checks if the current user has permission to modify it.
+     * Changes several fields of a task at once if the user has permission.
+     * All fields are validated together, and the task is updated with a single statement
+     * that only touches the changed columns.
      *
-     * @param title    The title of the task to retrieve.
-     * @param username The username of the user requesting the task.
-     * @return The {@link TaskEntity} if the user has permission to modify it.
-     * @throws ErrorPermissionException if the user does not have permission to modify the task.
+     * @param title    The title of the task to update.
+     * @param patch    DTO containing the fields to change, fields that are not set are left unchanged.
+     * @param user     The authenticated user requesting the update.
+     * @throws ErrorEditTaskException  if there is an error updating the task.
+     * @throws ErrorInputDataException if the changes are incorrect, the new title is taken or the new user does not exist.
+     * @throws ErrorPermissionException if the user does not have permission to edit the task.
      */
-    private TaskEntity getTaskIfUserHasPermission(String title, String username) {
-        UserEntity user = findUserByEmail(username);
-        TaskEntity taskEntity = findTaskByTitle(title);
+    @Transactional
+    public void patch(String title, PatchTaskDto patch, AuthenticatedUser user) throws ErrorEditTaskException {
+        validatePatch(patch);
 
-        if (!taskEntity.getUser().equals(user)) {
-            log.error("User '{}' does not have permission to modify task '{}'", username, title);
-            throw new ErrorPermissionException("You do not have permission to change task");
+        Long newUserId = null;
+        if (patch.getUser() != null) {
+            newUserId = userRepository.findIdByUsername(patch.getUser())
+                    .orElseThrow(() -> new ErrorInputDataException("User '" + patch.getUser() + "' does not exist"));
+        }
+
+        int modified;
+        try {
+            modified = taskRepository.patchOwned(title, user.getId(),
+                    patch.getTitle(), patch.getDescription(), patch.getDate(), newUserId);
+        } catch (DataIntegrityViolationException e) {
+            throw titleTaken(e, patch.getTitle());
+        }
+        checkModified(modified, title, user);
+        publish(newUserId == null ? TaskChangedEvent.Type.UPDATED : TaskChangedEvent.Type.REASSIGNED,
+                patch.getTitle() == null ? title : patch.getTitle(), user.getId(), newUserId);
+        log.info("Successfully edited task '{}' for user '{}'", title, user.getUsername());
+    }
+
+    /**
+     * Validates all fields of a partial task change at once.
+     *
+     * @param patch DTO containing the fields to change.
+     * @throws ErrorInputDataException if nothing is changed or any of the set fields is blank.
+     */
+    private void validatePatch(PatchTaskDto patch) {
+        List<String> errors = new ArrayList<>();
+        if (patch.getTitle() == null && patch.getDescription() == null && patch.getDate() == null && patch.getUser() == null) {
+            errors.add("nothing to change");
+        }
+        if (patch.getTitle() != null && isBlank(patch.getTitle())) {
+            errors.add("title must not be blank");
+        }
+        if (patch.getDescription() != null && isBlank(patch.getDescription())) {
+            errors.add("description must not be blank");
+        }
+        if (patch.getUser() != null && isBlank(patch.getUser())) {
+            errors.add("user must not be blank");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ErrorInputDataException("Incorrect task changes: " + String.join(", ", errors));
+        }
+    }
+
+    /**
+     * Publishes the change of a single task. Listeners that keep the tasks in memory react after commit.
+     *
+     * @param type      The kind of the change.
+     * @param title     The title of the task after the change.
+     * @param userId    The id of the user the task was assigned to.
+     * @param newUserId The id of the user the task is assigned to after a reassignment, otherwise {@code null}.
+     */
+    private void publish(TaskChangedEvent.Type type, String title, Long userId, Long newUserId) {
+        eventPublisher.publishEvent(new TaskChangedEvent(type, Collections.singletonList(title), userId, newUserId));
+    }
+
+    /**
+     * Publishes the change of the tasks of a committed bulk chunk, nothing if the chunk changed no task.
+     *
+     * @param type      The kind of the change.
+     * @param titles    The titles of the changed tasks.
+     * @param userId    The id of the user the tasks were assigned to.
+     * @param newUserId The id of the user the tasks are assigned to after a reassignment, otherwise {@code null}.
+     */
+    private void publish(TaskChangedEvent.Type type, List<String> titles, Long userId, Long newUserId) {
+        if (!titles.isEmpty()) {
+            eventPublisher.publishEvent(new TaskChangedEvent(type, titles, userId, newUserId));
         }
+    }
 
-        return taskEntity;
+    /**
+     * Checks if the write failed because the title is already taken by another task.
+     *
+     * @param e The exception thrown by the write.
+     * @return {@code true} if the unique index on the title was violated.
+     */
+    private boolean isTitleTaken(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return TITLE_UNIQUE_INDEX.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Translates the failure of a title change into the error returned to the user.
+     *
+     * @param e        The exception thrown by the write.
+     * @param newTitle The new title of the task.
+     * @return The exception to throw if the title is already taken.
+     * @throws DataIntegrityViolationException if the write failed for another reason.
+     */
+    private ErrorInputDataException titleTaken(DataIntegrityViolationException e, String newTitle) {
+        if (!isTitleTaken(e)) {
+            throw e;
+        }
+        log.error("Title '" + newTitle + "'is already taken");
+        return new ErrorInputDataException("Title '" + newTitle + "'is already taken");
     }
 
     /**
-     * Finds a user by their email address.
+     * Checks if the given string is null or blank.
      *
-     * @param email The email address of the user to find.
-     * @return The {@link UserEntity} corresponding to the provided email address.
-     * @throws UnauthorizedErrorException if no user with the given email is found.
+     * @param value The string to check.
+     * @return {@code true} if the string is null or contains only whitespace.
      */
-    private UserEntity findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedErrorException("User with email '" + email + "' not found"));
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     /**
-     * Finds a task by its title.
+     * Checks the result of a conditional update or delete, which only modifies the task
+     * if it is assigned to the current user. If nothing was modified, finds out the reason.
      *
-     * @param title The title of the task to find.
-     * @return The {@link TaskEntity} corresponding to the provided title.
-     * @throws ErrorInputDataException if no task with the given title is found.
+     * @param modified The number of modified tasks.
+     * @param title    The title of the task.
+     * @param user     The authenticated user requesting the change.
+     * @throws ErrorInputDataException  if no task with the given title is found.
+     * @throws ErrorPermissionException if the user does not have permission to modify the task.
      */
-    private TaskEntity findTaskByTitle(String title) {
-        return taskRepository.findByTitle(title)
-                .orElseThrow(() -> new ErrorInputDataException("Task with title '" + title + "' not found"));
+    private void checkModified(int modified, String title, AuthenticatedUser user) {
+        if (modified > 0) {
+            return;
+        }
+
+        if (!taskRepository.existsByTitle(title)) {
+            throw new ErrorInputDataException("Task with title '" + title + "' not found");
+        }
+
+        if (!taskRepository.existsByTitleAndUserId(title, user.getId())) {
+            log.error("User '{}' does not have permission to modify task '{}'", user.getUsername(), title);
+            throw new ErrorPermissionException("You do not have permission to change task");
+        }
     }
 
 }
@@ -0,0 +1,79 @@
+package com.example.tasksmanager.service.impl;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the version of the tasks of every active user in memory.
+ * The versions are taken from one clock, so the version of a user only grows, even after it was evicted.
+ * The epoch of the node is part of the ETag, so the ETags issued before a restart never match.
+ */
+@Component
+public class TaskVersionRegistry {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final LoadingCache<Long, Long> versions;
+
+    public TaskVersionRegistry(@Value("${tasks.version.cache-size:100000}") long cacheSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build(userId -> clock.incrementAndGet());
+    }
+
+    /**
+     * Returns the current version of the tasks of the user.
+     *
+     * @param userId The id of the user.
+     * @return The version, which changes with every committed change of the tasks of the user.
+     */
+    public long current(Long userId) {
+        return versions.get(userId);
+    }
+
+    /**
+     * Returns the ETag of the task lists of the user.
+     *
+     * @param userId The id of the user.
+     * @return The quoted ETag made of the epoch of the node and the current version.
+     */
+    public String eTag(Long userId) {
+        return "\"" + epoch + "-" + current(userId) + "\"";
+    }
+
+    /**
+     * Moves the tasks of the user to a new version.
+     *
+     * @param userId The id of the user.
+     */
+    public void increment(Long userId) {
+        versions.put(userId, clock.incrementAndGet());
+    }
+
+    /**
+     * Moves the users whose tasks were changed to a new version, after the change is committed.
+     *
+     * @param event The {@link TaskChangedEvent} of the changed tasks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        event.getUserIds().forEach(this::increment);
+    }
+
+    /**
+     * Moves all users to new versions when changes made on other nodes may have been missed.
+     *
+     * @param event The {@link ClusterResyncEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClusterResync(ClusterResyncEvent event) {
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1 @@
+create index concurrently if not exists tasks_user_id_date_id_idx on tasks (user_id, date, id);
@@ -0,0 +1 @@
+create unique index concurrently if not exists tasks_title_uindex on tasks (title);
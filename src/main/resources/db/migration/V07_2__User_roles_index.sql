@@ -0,0 +1 @@
+create unique index concurrently if not exists user_roles_user_id_role_id_uindex on user_roles (user_id, role_id);
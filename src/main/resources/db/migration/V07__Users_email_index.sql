@@ -0,0 +1 @@
+create unique index concurrently if not exists users_email_uindex on users (email);
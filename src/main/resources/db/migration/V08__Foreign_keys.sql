@@ -0,0 +1,8 @@
+alter table tasks
+    add constraint tasks_user_id_fk foreign key (user_id) references users (id) not valid;
+
+alter table user_roles
+    add constraint user_roles_user_id_fk foreign key (user_id) references users (id) not valid;
+
+alter table user_roles
+    add constraint user_roles_role_id_fk foreign key (role_id) references roles (id) not valid;
@@ -0,0 +1,3 @@
+alter table tasks validate constraint tasks_user_id_fk;
+alter table user_roles validate constraint user_roles_user_id_fk;
+alter table user_roles validate constraint user_roles_role_id_fk;
@@ -0,0 +1 @@
+alter table tasks alter column id set increment by 50;
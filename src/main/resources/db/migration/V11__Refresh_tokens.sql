@@ -0,0 +1,15 @@
+create table refresh_tokens (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    family varchar(36) not null,
+    token_hash varchar(64) not null,
+    expires_at timestamp with time zone not null,
+    revoked boolean not null default false,
+    primary key (id),
+    constraint refresh_tokens_user_id_fk foreign key (user_id) references users (id) on delete cascade
+);
+
+create unique index refresh_tokens_token_hash_uindex on refresh_tokens (token_hash);
+create index refresh_tokens_family_idx on refresh_tokens (family);
+create index refresh_tokens_user_id_idx on refresh_tokens (user_id);
+create index refresh_tokens_expires_at_idx on refresh_tokens (expires_at);
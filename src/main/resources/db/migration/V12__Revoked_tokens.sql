@@ -0,0 +1,7 @@
+create table revoked_tokens (
+    jti varchar(36) not null,
+    expires_at timestamp with time zone not null,
+    primary key (jti)
+);
+
+create index revoked_tokens_expires_at_idx on revoked_tokens (expires_at);
@@ -0,0 +1,10 @@
+create table task_import_errors (
+    import_id uuid not null,
+    line bigint not null,
+    title varchar(255),
+    reason varchar(1000) not null,
+    created_at timestamp with time zone not null default now(),
+    primary key (import_id, line)
+);
+
+create index task_import_errors_created_at_idx on task_import_errors (created_at);
@@ -0,0 +1,19 @@
+-- a nullable column without a default is added without rewriting the table,
+-- the existing rows are filled in batches by TaskSearchBackfill after start
+alter table tasks add column search_vector tsvector;
+
+-- 'simple' keeps every word as it is, titles and descriptions are not in a single language
+create or replace function tasks_search_vector(title text, description text) returns tsvector as $$
+    select setweight(to_tsvector('simple', title), 'A') || setweight(to_tsvector('simple', description), 'B')
+$$ language sql immutable;
+
+create or replace function tasks_search_vector_update() returns trigger as $$
+begin
+    new.search_vector := tasks_search_vector(new.title, new.description);
+    return new;
+end;
+$$ language plpgsql;
+
+create trigger tasks_search_vector_update
+    before insert or update of title, description on tasks
+    for each row execute function tasks_search_vector_update();
@@ -0,0 +1 @@
+create index concurrently if not exists tasks_search_vector_idx on tasks using gin (search_vector);
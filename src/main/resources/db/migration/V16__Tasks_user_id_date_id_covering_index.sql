@@ -0,0 +1,2 @@
+-- carries the columns of the task lists, so the lists by date can be read with index-only scans
+create index concurrently if not exists tasks_user_id_date_id_covering_idx on tasks (user_id, date, id) include (title, description);
@@ -0,0 +1,2 @@
+-- replaced by tasks_user_id_date_id_covering_idx, which has the same key columns
+drop index concurrently if exists tasks_user_id_date_id_idx;
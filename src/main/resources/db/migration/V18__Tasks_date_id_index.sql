@@ -0,0 +1 @@
+create index concurrently if not exists tasks_date_id_idx on tasks (date, id);
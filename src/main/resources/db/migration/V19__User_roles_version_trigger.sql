@@ -0,0 +1,17 @@
+-- every change of the roles of a user, also one made directly in the database,
+-- invalidates the tokens issued with the old roles
+create or replace function user_roles_version_increment() returns trigger as $$
+begin
+    if tg_op in ('UPDATE', 'DELETE') then
+        update users set roles_version = roles_version + 1 where id = old.user_id;
+    end if;
+    if tg_op = 'INSERT' or (tg_op = 'UPDATE' and new.user_id <> old.user_id) then
+        update users set roles_version = roles_version + 1 where id = new.user_id;
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger user_roles_version_increment
+    after insert or update or delete on user_roles
+    for each row execute function user_roles_version_increment();
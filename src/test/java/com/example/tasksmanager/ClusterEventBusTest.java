@@ -0,0 +1,235 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.event.ClusterEventBus;
+import com.example.tasksmanager.event.ClusterMessage;
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import com.example.tasksmanager.event.TokenRevokedEvent;
+import com.example.tasksmanager.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class ClusterEventBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<TestBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(ClusterEventBus::stop);
+    }
+
+    @Test
+    void taskChangeRoundTripTest() throws Exception {
+        //given
+        TestBus sender = bus();
+        TestBus receiver = bus();
+        String payload = sendTaskChange(sender, List.of("a", "b"));
+
+        //when
+        PGConnection listening = listen(receiver, payload);
+
+        //then
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(receiver.eventPublisher, timeout(2000)).publishEvent(events.capture());
+        TaskChangedEvent event = events.getValue();
+        assertEquals(TaskChangedEvent.Type.REASSIGNED, event.getType());
+        assertEquals(List.of("a", "b"), event.getTitles());
+        assertEquals(1L, event.getUserId());
+        assertEquals(2L, event.getNewUserId());
+        assertTrue(event.isRemote());
+        verify(listening, atLeastOnce()).getNotifications(anyInt());
+        verify(receiver.eventPublisher, never()).publishEvent(any(ClusterResyncEvent.class));
+    }
+
+    @Test
+    void userAndTokenRoundTripTest() throws Exception {
+        //given
+        TestBus sender = bus();
+        TestBus receiver = bus();
+        sender.onUserChanged(new UserChangedEvent(3L, "User3@gmail.com"));
+        sender.onTokenRevoked(new TokenRevokedEvent("jti", 1234L));
+        List<String> payloads = sent(sender, 2);
+
+        //when
+        listen(receiver, payloads.toArray(new String[0]));
+
+        //then
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(receiver.eventPublisher, timeout(2000).times(2)).publishEvent(events.capture());
+        UserChangedEvent user = (UserChangedEvent) events.getAllValues().get(0);
+        assertEquals(3L, user.getUserId());
+        assertEquals("User3@gmail.com", user.getEmail());
+        assertTrue(user.isRemote());
+        TokenRevokedEvent token = (TokenRevokedEvent) events.getAllValues().get(1);
+        assertEquals("jti", token.getJti());
+        assertEquals(1234L, token.getExpiresAt());
+        assertTrue(token.isRemote());
+    }
+
+    @Test
+    void remoteChangeIsNotSentAgainTest() throws Exception {
+        //given
+        TestBus bus = bus();
+
+        //when
+        bus.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, List.of("a"), 1L, null, true));
+        bus.onUserChanged(new UserChangedEvent(1L, "User1@gmail.com", true));
+
+        //then
+        verify(bus.statement, after(200).never()).setString(anyInt(), anyString());
+    }
+
+    @Test
+    void ownMessageIsSkippedTest() throws Exception {
+        //given
+        TestBus bus = bus();
+        String payload = sendTaskChange(bus, List.of("a"));
+
+        //when
+        PGConnection listening = listen(bus, payload);
+
+        //then
+        verify(listening, timeout(2000).atLeast(2)).getNotifications(anyInt());
+        verify(bus.eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void titlesAreLeftOutOfLongMessagesTest() throws Exception {
+        //given
+        TestBus bus = bus();
+        List<String> titles = new ArrayList<>(Collections.nCopies(1000, "a title of twenty ch"));
+
+        //when
+        String payload = sendTaskChange(bus, titles);
+
+        //then
+        ClusterMessage message = objectMapper.readValue(payload, ClusterMessage.class);
+        assertTrue(message.getTitles().isEmpty());
+        assertEquals(1L, message.getUserId());
+    }
+
+    @Test
+    void resyncAfterReconnectTest() throws Exception {
+        //given
+        TestBus bus = bus();
+        Connection broken = listeningConnection();
+        when(broken.unwrap(PGConnection.class).getNotifications(anyInt())).thenThrow(new SQLException("connection lost"));
+        bus.connections.add(broken);
+        listen(bus);
+
+        //when
+
+        //then
+        verify(bus.eventPublisher, timeout(2000)).publishEvent(any(ClusterResyncEvent.class));
+        verify(broken).close();
+    }
+
+    private TestBus bus() {
+        TestBus bus = new TestBus(mock(DataSource.class), mock(ApplicationEventPublisher.class));
+        buses.add(bus);
+        bus.start();
+        return bus;
+    }
+
+    private String sendTaskChange(TestBus bus, List<String> titles) throws Exception {
+        bus.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.REASSIGNED, titles, 1L, 2L));
+        return sent(bus, 1).get(0);
+    }
+
+    /**
+     * Returns the payloads the bus sent with pg_notify.
+     */
+    private List<String> sent(TestBus bus, int count) throws Exception {
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(bus.statement, timeout(2000).times(count)).setString(eq(2), payloads.capture());
+        return payloads.getAllValues();
+    }
+
+    /**
+     * Adds a listening connection that receives the given payloads once and then idles.
+     */
+    private PGConnection listen(TestBus bus, String... payloads) throws Exception {
+        Connection connection = listeningConnection();
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        PGNotification[] notifications = new PGNotification[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            notifications[i] = mock(PGNotification.class);
+            when(notifications[i].getParameter()).thenReturn(payloads[i]);
+        }
+        when(pgConnection.getNotifications(anyInt())).thenReturn(notifications).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+        bus.connections.add(connection);
+        return pgConnection;
+    }
+
+    private Connection listeningConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.unwrap(PGConnection.class)).thenReturn(mock(PGConnection.class));
+        return connection;
+    }
+
+    /**
+     * Sends over a mocked pool and listens on the queued connections instead of connecting to Postgres.
+     */
+    private static class TestBus extends ClusterEventBus {
+
+        private final ApplicationEventPublisher eventPublisher;
+        private final PreparedStatement statement = mock(PreparedStatement.class);
+        private final BlockingQueue<Connection> connections = new LinkedBlockingQueue<>();
+
+        private TestBus(DataSource dataSource, ApplicationEventPublisher eventPublisher) {
+            super(dataSource, new DataSourceProperties(), eventPublisher, new ObjectMapper(), new SimpleMeterRegistry(),
+                    "test_events", 100, 10, 10);
+            this.eventPublisher = eventPublisher;
+            try {
+                Connection connection = mock(Connection.class);
+                when(dataSource.getConnection()).thenReturn(connection);
+                when(connection.prepareStatement(anyString())).thenReturn(statement);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected Connection connect() throws SQLException {
+            try {
+                Connection connection = connections.poll(1, TimeUnit.SECONDS);
+                if (connection == null) {
+                    throw new SQLException("no connection");
+                }
+                return connection;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+        }
+    }
+}
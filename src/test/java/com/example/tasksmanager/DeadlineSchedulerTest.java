@@ -0,0 +1,75 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.reminder.DeadlineScheduler;
+import com.example.tasksmanager.reminder.ReminderSink;
+import com.example.tasksmanager.reminder.TaskReminder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class DeadlineSchedulerTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final ReminderSink sink = mock(ReminderSink.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineScheduler scheduler = new DeadlineScheduler(jdbcTemplate, List.of(sink), meterRegistry,
+            "", 50, 86400000, 2, 1000, 0, 1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scheduledGaugeTest() throws Exception {
+        //given
+        TaskReminder tomorrow = new TaskReminder(1, "title", 1L, LocalDate.now().plusDays(1));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(tomorrow), new ArrayList<>());
+
+        //when
+        scheduler.start();
+
+        //then
+        verify(jdbcTemplate, timeout(2000)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        Thread.sleep(200);
+        assertEquals(1.0, meterRegistry.get("tasks.reminders.scheduled").gauge().value());
+        verifyNoInteractions(sink);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void missedReminderFiresOnceAfterLoadTest() throws Exception {
+        //given
+        TaskReminder today = new TaskReminder(2, "today", 1L, LocalDate.now());
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(today));
+
+        //when
+        scheduler.start();
+
+        //then
+        verify(sink, timeout(2000)).remind(argThat(reminder -> reminder.getTaskId() == 2));
+
+        //when
+        scheduler.onClusterResync(new ClusterResyncEvent());
+
+        //then
+        verify(jdbcTemplate, timeout(2000).times(2)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        Thread.sleep(200);
+        verify(sink, times(1)).remind(any());
+        assertEquals(1.0, meterRegistry.get("tasks.reminders.fired").counter().count());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.jwt.AuthenticatedUser;
+import com.example.tasksmanager.jwt.JwtAuthenticationFilter;
+import com.example.tasksmanager.jwt.JwtGenerator;
+import com.example.tasksmanager.jwt.JwtKeyProperties;
+import com.example.tasksmanager.jwt.JwtTokenCache;
+import com.example.tasksmanager.jwt.JwtUserDetailsService;
+import com.example.tasksmanager.jwt.RolesVersionRegistry;
+import com.example.tasksmanager.jwt.TokenDenylist;
+import com.example.tasksmanager.jwt.UserDetailsCache;
+import com.example.tasksmanager.repository.UserRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtUserDetailsService jwtUserDetailsService = mock(JwtUserDetailsService.class);
+    private final TokenDenylist tokenDenylist = mock(TokenDenylist.class);
+
+    private final AuthenticatedUser admin = new AuthenticatedUser(5L, "User5@gmail.com", "",
+            List.of(new SimpleGrantedAuthority("ADMIN")), 3);
+
+    private JwtGenerator jwtGenerator;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyProperties keyProperties = new JwtKeyProperties();
+        keyProperties.setActiveKeyId("test");
+        keyProperties.getSecrets().put("test", Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS512).getEncoded()));
+        jwtGenerator = new JwtGenerator(keyProperties);
+        ReflectionTestUtils.setField(jwtGenerator, "expiration", 60000L);
+
+        filter = new JwtAuthenticationFilter(new JwtTokenCache(jwtGenerator, 100),
+                new UserDetailsCache(jwtUserDetailsService, new SimpleMeterRegistry(), 100, 60000),
+                new RolesVersionRegistry(userRepository, 100, 60000), tokenDenylist);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessAuthenticatesFromClaimsTest() throws Exception {
+        //given
+        when(userRepository.findRolesVersionById(5L)).thenReturn(Optional.of(3));
+
+        //when
+        MockFilterChain chain = filter(tokenOf(admin));
+
+        //then
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        AuthenticatedUser principal = (AuthenticatedUser) auth.getPrincipal();
+        assertEquals(5L, principal.getId());
+        assertEquals("User5@gmail.com", principal.getUsername());
+        assertEquals(3, principal.getRolesVersion());
+        assertEquals(List.of(new SimpleGrantedAuthority("ADMIN")), List.copyOf(auth.getAuthorities()));
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(jwtUserDetailsService);
+    }
+
+    @Test
+    void outdatedRolesVersionIsRejectedTest() throws Exception {
+        //given
+        when(userRepository.findRolesVersionById(5L)).thenReturn(Optional.of(4));
+
+        //when
+        MockFilterChain chain = filter(tokenOf(admin));
+
+        //then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(jwtUserDetailsService);
+    }
+
+    @Test
+    void revokedTokenIsRejectedTest() throws Exception {
+        //given
+        when(tokenDenylist.isRevoked(anyString())).thenReturn(true);
+
+        //when
+        filter(tokenOf(admin));
+
+        //then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userRepository, jwtUserDetailsService);
+    }
+
+    @Test
+    void tokenWithoutClaimsUsesCachedUserTest() throws Exception {
+        //given
+        String token = jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken("User5@gmail.com", null));
+        when(jwtUserDetailsService.loadUserByUsername("User5@gmail.com")).thenReturn(admin);
+
+        //when
+        filter(token);
+        SecurityContextHolder.clearContext();
+        filter(token);
+
+        //then
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(5L, ((AuthenticatedUser) auth.getPrincipal()).getId());
+        verify(jwtUserDetailsService, times(1)).loadUserByUsername("User5@gmail.com");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void statefulModeLoadsUserTest() throws Exception {
+        //given
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        when(jwtUserDetailsService.loadUserByUsername("User5@gmail.com")).thenReturn(admin);
+
+        //when
+        filter(tokenOf(admin));
+
+        //then
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUserDetailsService, times(1)).loadUserByUsername("User5@gmail.com");
+        verifyNoInteractions(userRepository);
+    }
+
+    private String tokenOf(AuthenticatedUser user) {
+        return jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private MockFilterChain filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/task/show/myTasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.jwt.JwtGenerator;
+import com.example.tasksmanager.jwt.JwtKeyProperties;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+public class JwtGeneratorTest {
+
+    private final String oldSecret = newSecret();
+    private final String newSecret = newSecret();
+
+    @Test
+    void oldKeyVerifiesDuringRotationTest() {
+        //given
+        String token = generator("old", "old", oldSecret).generateToken(new UsernamePasswordAuthenticationToken("User1@gmail.com", null));
+
+        //when
+        JwtGenerator rotated = generator("new", "old", oldSecret);
+
+        //then
+        assertEquals("User1@gmail.com", rotated.getEmailFromJWT(token));
+    }
+
+    @Test
+    void removedKeyIsRejectedTest() {
+        //given
+        String token = generator("old", "old", oldSecret).generateToken(new UsernamePasswordAuthenticationToken("User1@gmail.com", null));
+
+        //when
+        JwtGenerator rotated = generator("new", null, null);
+
+        //then
+        assertThrowsExactly(AuthenticationCredentialsNotFoundException.class, () -> rotated.getEmailFromJWT(token));
+    }
+
+    @Test
+    void missingKeyFailsStartupTest() {
+        //given
+        JwtKeyProperties keyProperties = new JwtKeyProperties();
+
+        //then
+        assertThrowsExactly(IllegalStateException.class, () -> new JwtGenerator(keyProperties));
+    }
+
+    private JwtGenerator generator(String activeKeyId, String oldKeyId, String oldKeySecret) {
+        JwtKeyProperties keyProperties = new JwtKeyProperties();
+        keyProperties.setActiveKeyId(activeKeyId);
+        if (oldKeyId != null) {
+            keyProperties.getSecrets().put(oldKeyId, oldKeySecret);
+        }
+        if (!activeKeyId.equals(oldKeyId)) {
+            keyProperties.getSecrets().put(activeKeyId, newSecret);
+        }
+        JwtGenerator jwtGenerator = new JwtGenerator(keyProperties);
+        ReflectionTestUtils.setField(jwtGenerator, "expiration", 60000L);
+        return jwtGenerator;
+    }
+
+    private static String newSecret() {
+        return Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS512).getEncoded());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.jwt.JwtGenerator;
+import com.example.tasksmanager.jwt.JwtKeyProperties;
+import com.example.tasksmanager.jwt.JwtTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of the JWT verification done by the authentication filter
+ * before the token cache (validate + parse, each building a new parser as the filter originally did),
+ * the same with the shared parser, a cache hit and a cache miss.
+ * Run with the main method, it is not part of the test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenCacheBenchmark {
+
+    private JwtGenerator jwtGenerator;
+    private JwtTokenCache tokenCache;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyProperties keyProperties = new JwtKeyProperties();
+        keyProperties.setActiveKeyId("bench");
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        keyProperties.getSecrets().put("bench", Encoders.BASE64.encode(key.getEncoded()));
+        jwtGenerator = new JwtGenerator(keyProperties);
+        ReflectionTestUtils.setField(jwtGenerator, "expiration", TimeUnit.HOURS.toMillis(1));
+        tokenCache = new JwtTokenCache(jwtGenerator, 10000);
+        token = jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken("User1@gmail.com", null));
+        tokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String validateAndParseBuildingParser() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String validateAndParse() {
+        jwtGenerator.validateToken(token);
+        return jwtGenerator.getEmailFromJWT(token);
+    }
+
+    @Benchmark
+    public String cacheHit() {
+        return tokenCache.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String cacheMiss() {
+        tokenCache.invalidate(token);
+        return tokenCache.verify(token).getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtTokenCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.config.PooledPasswordEncoder;
+import com.example.tasksmanager.exceptions.ErrorServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PooledPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PooledPasswordEncoder encoder = new PooledPasswordEncoder(new BlockingEncoder(), 1, 1, 5000, meterRegistry);
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.destroy();
+    }
+
+    @Test
+    void fullQueueIsRejectedTest() throws Exception {
+        //given
+        callers.submit(() -> encoder.encode("running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> encoder.encode("queued"));
+        while (meterRegistry.get("auth.password.queue").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        //when
+        Throwable exception = assertThrowsExactly(ErrorServiceBusyException.class,
+                ()->{encoder.encode("rejected");} );
+
+        //then
+        assertEquals(ErrorServiceBusyException.class, exception.getClass());
+        assertEquals(1, meterRegistry.get("auth.password.rejected").counter().count());
+    }
+
+    @Test
+    void encodeTest() {
+        //given
+        release.countDown();
+
+        //when
+        String encoded = encoder.encode("password");
+
+        //then
+        assertTrue(encoder.matches("password", encoded));
+    }
+
+    /** Encoder that blocks until it is released */
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{encoded}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("{encoded}" + rawPassword);
+        }
+    }
+}
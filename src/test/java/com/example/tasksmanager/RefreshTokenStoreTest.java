@@ -0,0 +1,81 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.exceptions.UnauthorizedErrorException;
+import com.example.tasksmanager.model.RefreshTokenEntity;
+import com.example.tasksmanager.model.UserEntity;
+import com.example.tasksmanager.repository.RefreshTokenRepository;
+import com.example.tasksmanager.repository.UserRepository;
+import com.example.tasksmanager.service.impl.RefreshTokenStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RefreshTokenStore refreshTokenStore;
+
+    private final UserEntity user = new UserEntity(1L, "User1@gmail.com", "user", "", new ArrayList<>(), 0);
+
+    @Test
+    void rotateTest() {
+        //given
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        String token = refreshTokenStore.issue(1L);
+        ArgumentCaptor<RefreshTokenEntity> issued = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(refreshTokenRepository).save(issued.capture());
+        RefreshTokenEntity stored = issued.getValue();
+        stored.setExpiresAt(Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(eq(stored.getTokenHash()), any())).thenReturn(1);
+
+        //when
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(token);
+
+        //then
+        assertEquals("User1@gmail.com", rotation.getEmail());
+        assertNotEquals(token, rotation.getToken());
+        verify(refreshTokenRepository, times(2)).save(argThat(saved -> saved.getFamily().equals(stored.getFamily())));
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    void reusedTokenRevokesFamilyTest() {
+        //given
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        String token = refreshTokenStore.issue(1L);
+        ArgumentCaptor<RefreshTokenEntity> issued = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(refreshTokenRepository).save(issued.capture());
+        RefreshTokenEntity stored = issued.getValue();
+        stored.setExpiresAt(Instant.now().plusSeconds(60));
+        stored.setRevoked(true);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(eq(stored.getTokenHash()), any())).thenReturn(0);
+
+        //when
+        Throwable exception = assertThrowsExactly(UnauthorizedErrorException.class,
+                ()->{refreshTokenStore.rotate(token);} );
+
+        //then
+        assertEquals(UnauthorizedErrorException.class, exception.getClass());
+        verify(refreshTokenRepository, times(1)).revokeFamily(stored.getFamily());
+    }
+}
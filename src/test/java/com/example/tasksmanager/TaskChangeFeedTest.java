@@ -0,0 +1,180 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.event.TaskChangedEvent;
+import com.example.tasksmanager.service.impl.TaskChangeFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<TestEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /** Send blocks until released, so the events of a subscriber pile up in its buffer */
+    private final CountDownLatch sendReleased = new CountDownLatch(1);
+
+    private volatile boolean blockSend;
+    private volatile boolean failSend;
+
+    private final TaskChangeFeed feed = new TaskChangeFeed(meterRegistry, 1, 2, 60000) {
+        @Override
+        protected SseEmitter createEmitter(long timeout) {
+            TestEmitter emitter = new TestEmitter(timeout);
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        sendReleased.countDown();
+        feed.shutdown();
+    }
+
+    @Test
+    void sendsChangesOfTheUserTest() throws Exception {
+        //given
+        feed.subscribe(1L);
+        feed.subscribe(2L);
+
+        //when
+        feed.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, List.of("a"), 1L, null));
+        feed.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, List.of("b"), 1L, null));
+
+        //then
+        assertTrue(emitters.get(0).sent.await(2, TimeUnit.SECONDS));
+        assertEquals(2, emitters.get(0).events.size());
+        assertTrue(emitters.get(1).events.isEmpty());
+        assertEquals(2.0, subscribers());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedTest() throws Exception {
+        //given
+        blockSend = true;
+        feed.subscribe(1L);
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            feed.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, List.of("task" + i), 1L, null));
+        }
+
+        //then
+        assertTrue(emitters.get(0).completed);
+        assertEquals(1.0, meterRegistry.get("tasks.stream.dropped").counter().count());
+        assertEquals(0.0, subscribers());
+    }
+
+    @Test
+    void completionRemovesSubscriberTest() {
+        //given
+        feed.subscribe(1L);
+        feed.subscribe(1L);
+
+        //when
+        emitters.get(0).complete();
+
+        //then
+        assertEquals(1.0, subscribers());
+
+        //when
+        emitters.get(1).completeWithError(new IOException("broken pipe"));
+        emitters.get(1).complete();
+
+        //then
+        assertEquals(0.0, subscribers());
+        assertEquals(0.0, meterRegistry.get("tasks.stream.dropped").counter().count());
+    }
+
+    @Test
+    void brokenConnectionRemovesSubscriberTest() throws Exception {
+        //given
+        failSend = true;
+        feed.subscribe(1L);
+
+        //when
+        feed.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, List.of("a"), 1L, null));
+
+        //then
+        assertTrue(emitters.get(0).failed.await(2, TimeUnit.SECONDS));
+        assertEquals(0.0, subscribers());
+        assertFalse(emitters.get(0).completed);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("tasks.stream.subscribers").gauge().value();
+    }
+
+    /**
+     * Records the sent events and runs the callbacks of the subscription the way the container does.
+     */
+    private class TestEmitter extends SseEmitter {
+
+        private final List<Object> events = new ArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(2);
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private final List<Runnable> onCompletion = new ArrayList<>();
+        private final List<Consumer<Throwable>> onError = new ArrayList<>();
+        private volatile boolean completed;
+
+        private TestEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSend) {
+                throw new IOException("broken pipe");
+            }
+            if (blockSend) {
+                try {
+                    sendReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            synchronized (events) {
+                events.add(builder.build());
+            }
+            sent.countDown();
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            onCompletion.add(callback);
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            onError.add(callback);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            onCompletion.forEach(Runnable::run);
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            onError.forEach(callback -> callback.accept(ex));
+            failed.countDown();
+        }
+    }
+}
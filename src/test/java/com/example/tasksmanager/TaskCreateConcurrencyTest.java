@@ -0,0 +1,86 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.dto.CreateTaskDto;
+import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
+import com.example.tasksmanager.repository.TaskRepository;
+import com.example.tasksmanager.service.impl.TaskServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that the unique index on the title lets exactly one of the concurrent creates
+ * with the same title win, without checking the title before the insert.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class TaskCreateConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final AuthenticatedUser user = new AuthenticatedUser(1L, "User1@gmail.com", "", new ArrayList<>(), 0);
+
+    private final String title = "concurrent-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (taskRepository.existsByTitle(title)) {
+            taskService.delete(title, user);
+        }
+    }
+
+    @Test
+    void onlyOneConcurrentCreateWinsTest() throws Exception {
+        //given
+        CreateTaskDto createTaskDto = new CreateTaskDto(title, "description", Date.valueOf("2002-02-02"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    taskService.create(createTaskDto, user);
+                    return true;
+                } catch (ErrorInputDataException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        //then
+        Assertions.assertEquals(1, created);
+        Assertions.assertTrue(taskRepository.existsByTitle(title));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.service.impl.Csv;
+import com.example.tasksmanager.service.impl.TaskExporter;
+import com.example.tasksmanager.service.impl.TaskFileFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class TaskExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataSource dataSource = mock(DataSource.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private TaskExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getInt("id")).thenReturn(1, 2);
+        when(resultSet.getString("title")).thenReturn("Buy milk, eggs", "Plain");
+        when(resultSet.getString("description")).thenReturn("Say \"hi\"\r\nand leave", "");
+        when(resultSet.getDate("date")).thenReturn(Date.valueOf("2024-05-01"), Date.valueOf("2024-05-02"));
+
+        exporter = new TaskExporter(dataSource, transactionManager, objectMapper, 500);
+    }
+
+    @Test
+    void csvExportTest() throws Exception {
+        //when
+        String content = export(TaskFileFormat.CSV);
+
+        //then
+        assertEquals("id,title,description,date\r\n" +
+                "1,\"Buy milk, eggs\",\"Say \"\"hi\"\"\r\nand leave\",2024-05-01\r\n" +
+                "2,Plain,,2024-05-02\r\n", content);
+        verify(statement, times(1)).setFetchSize(500);
+    }
+
+    @Test
+    void ndjsonExportTest() throws Exception {
+        //when
+        String content = export(TaskFileFormat.NDJSON);
+
+        //then
+        assertTrue(content.endsWith("\n"));
+        String[] lines = content.split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"), line);
+        }
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asInt());
+        assertEquals("Say \"hi\"\r\nand leave", first.get("description").asText());
+        assertEquals("2024-05-01", first.get("date").asText());
+        assertEquals("Plain", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    void csvFieldQuotingTest() throws IOException {
+        //then
+        assertEquals("plain", field("plain"));
+        assertEquals("", field(""));
+        assertEquals("\"a,b\"", field("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", field("say \"hi\""));
+        assertEquals("\"two\nlines\"", field("two\nlines"));
+        assertEquals("\"carriage\rreturn\"", field("carriage\rreturn"));
+    }
+
+    private String export(TaskFileFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(7L, format, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String field(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        Csv.writeField(writer, value);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import com.example.tasksmanager.service.impl.TaskFileFormat;
+import com.example.tasksmanager.service.impl.TaskImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<TaskImportReader.Row> readAll(TaskFileFormat format, String content) throws IOException {
+        TaskImportReader reader = TaskImportReader.of(format, new StringReader(content), objectMapper);
+        List<TaskImportReader.Row> rows = new ArrayList<>();
+        for (TaskImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void csvQuotedFieldsTest() throws IOException {
+        //given
+        String content = "user,date,title,description\r\n" +
+                "User1,2024-05-01,\"Buy milk, eggs\",\"Say \"\"hi\"\"\r\nand leave\"\r\n" +
+                "\r\n" +
+                "User1@gmail.com,2024-05-02,Plain,Text";
+
+        //when
+        List<TaskImportReader.Row> rows = readAll(TaskFileFormat.CSV, content);
+
+        //then
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(0).isValid());
+        assertEquals(1, rows.get(0).getLine());
+        assertEquals("Buy milk, eggs", rows.get(0).getTitle());
+        assertEquals("Say \"hi\"\r\nand leave", rows.get(0).getDescription());
+        assertEquals("2024-05-01", rows.get(0).getDate());
+        assertEquals("User1", rows.get(0).getUser());
+        assertEquals(2, rows.get(1).getLine());
+        assertEquals("User1@gmail.com", rows.get(1).getUser());
+    }
+
+    @Test
+    void csvMissingColumnTest() {
+        //then
+        assertThrows(ErrorInputDataException.class, () -> readAll(TaskFileFormat.CSV, "title,description,date\n"));
+    }
+
+    @Test
+    void invalidRowsAreReportedTest() throws IOException {
+        //given
+        String content = "title,description,date,user\n" +
+                ",Text,2024-13-01,User1\n" +
+                "Title,Text,2024-05-01\n";
+
+        //when
+        List<TaskImportReader.Row> rows = readAll(TaskFileFormat.CSV, content);
+
+        //then
+        assertEquals(2, rows.size());
+        assertFalse(rows.get(0).isValid());
+        assertEquals("title must not be blank, date must have the format yyyy-MM-dd", rows.get(0).getError());
+        assertNull(rows.get(0).getDescription());
+        assertEquals("user must not be blank", rows.get(1).getError());
+        assertEquals("Title", rows.get(1).getTitle());
+    }
+
+    @Test
+    void ndjsonTest() throws IOException {
+        //given
+        String content = "{\"title\":\"Title\",\"description\":\"Text\",\"date\":\"2024-05-01\",\"user\":\"User2\"}\n" +
+                "\n" +
+                "{\"title\":\"Broken\"\n" +
+                "[1,2]\n";
+
+        //when
+        List<TaskImportReader.Row> rows = readAll(TaskFileFormat.NDJSON, content);
+
+        //then
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).isValid());
+        assertEquals("User2", rows.get(0).getUser());
+        assertEquals("incorrect JSON", rows.get(1).getError());
+        assertEquals(2, rows.get(1).getLine());
+        assertEquals("incorrect JSON", rows.get(2).getError());
+    }
+
+    @Test
+    void ndjsonLineTooLongTest() {
+        //given
+        StringBuilder content = new StringBuilder("{\"title\":\"");
+        while (content.length() <= 64 * 1024) {
+            content.append("Title ");
+        }
+        content.append("\"}\n");
+
+        //then
+        assertThrows(ErrorInputDataException.class, () -> readAll(TaskFileFormat.NDJSON, content.toString()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.dto.TaskResponseDto;
+import com.example.tasksmanager.event.TaskChangedEvent;
+import com.example.tasksmanager.service.impl.TaskListCache;
+import com.example.tasksmanager.service.impl.TaskVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListCacheTest {
+
+    private final TaskVersionRegistry versions = new TaskVersionRegistry(100);
+
+    private final TaskListCache cache = new TaskListCache(versions, new SimpleMeterRegistry(), 100, 60000, 2);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<List<TaskResponseDto>> loader = () -> {
+        loads.incrementAndGet();
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        tasks.add(new TaskResponseDto("title", "description", Date.valueOf("2002-02-02")));
+        return tasks;
+    };
+
+    @Test
+    void firstPagesAreCachedTest() {
+        //when
+        cache.get(1L, 20, 0, loader);
+        cache.get(1L, 20, 0, loader);
+        cache.get(1L, 20, 1, loader);
+        cache.get(1L, 20, 2, loader);
+        cache.get(1L, 20, 2, loader);
+
+        //then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void reassignInvalidatesBothUsersTest() {
+        //given
+        cache.get(1L, 20, 0, loader);
+        cache.get(2L, 20, 0, loader);
+        cache.get(3L, 20, 0, loader);
+
+        //when
+        versions.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.REASSIGNED,
+                Collections.singletonList("title"), 1L, 2L));
+        cache.get(1L, 20, 0, loader);
+        cache.get(2L, 20, 0, loader);
+        cache.get(3L, 20, 0, loader);
+
+        //then
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void versionOnlyGrowsTest() {
+        //given
+        String eTag = versions.eTag(1L);
+        long version = versions.current(1L);
+
+        //when
+        versions.increment(1L);
+
+        //then
+        assertTrue(versions.current(1L) > version);
+        assertNotEquals(eTag, versions.eTag(1L));
+    }
+}
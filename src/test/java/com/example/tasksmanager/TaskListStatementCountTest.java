@@ -0,0 +1,70 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.dto.TaskSliceDto;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
+import com.example.tasksmanager.service.impl.TaskServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+
+/**
+ * Checks that listing tasks runs exactly one SQL statement and loads no entities,
+ * so adding an association to the task can not bring back N+1 loading unnoticed.
+ * The task list cache is turned off, so every listing reaches the database.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "tasks.list-cache.max-pages=0"
+})
+public class TaskListStatementCountTest {
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final AuthenticatedUser user = new AuthenticatedUser(1L, "User1@gmail.com", "", new ArrayList<>(), 0);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void showMyTasksStatementCountTest() {
+        //when
+        taskService.showMyTasks(user, 20, 0);
+
+        //then
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void showMyTasksAfterStatementCountTest() {
+        //given
+        TaskSliceDto firstPage = taskService.showMyTasksAfter(user, 1, "");
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        statistics.clear();
+
+        //when
+        taskService.showMyTasksAfter(user, 1, firstPage.getNextCursor());
+
+        //then
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -10,11 +10,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.sql.Date;
 import java.util.Collections;
 import java.util.List;
 
+@ActiveProfiles("test")
 @SpringBootTest
 public class TaskMapperTest {
 
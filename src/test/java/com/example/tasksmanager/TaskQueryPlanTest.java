@@ -0,0 +1,131 @@
+package com.example.tasksmanager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that the hot queries can be served by the indexes.
+ * Sequential scans are disabled for the checked query, since on the small test tables
+ * the planner would prefer them even when an index is available.
+ * The tasks table is vacuumed first, so its visibility map allows index-only scans.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class TaskQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void vacuum() {
+        jdbcTemplate.execute("vacuum analyze tasks");
+    }
+
+    @Test
+    void findUserByEmailUsesIndexTest() {
+        //when
+        String plan = explain("select * from users where email = 'User1@gmail.com'");
+
+        //then
+        Assertions.assertTrue(plan.contains("users_email_uindex"), plan);
+    }
+
+    @Test
+    void findTaskByTitleUsesIndexTest() {
+        //when
+        String plan = explain("select * from tasks where title = 'tasks1'");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_title_uindex"), plan);
+    }
+
+    @Test
+    void showMyTasksUsesIndexTest() {
+        //when
+        String plan = explain("select title, description, date from tasks where user_id = 1 order by date, id limit 20");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_user_id_date_id_covering_idx"), plan);
+        Assertions.assertTrue(plan.contains("Index Only Scan"), plan);
+        Assertions.assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void showMyTasksAfterUsesIndexTest() {
+        //when
+        String plan = explain("select id, title, description, date from tasks where user_id = 1 " +
+                "and date >= '2024-01-01' and (date > '2024-01-01' or id > 1) order by date, id limit 21");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_user_id_date_id_covering_idx"), plan);
+        Assertions.assertTrue(plan.contains("Index Only Scan"), plan);
+        Assertions.assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void dueTasksUseIndexOnlyScanTest() {
+        //when
+        String plan = explain("select id, title, description, date from tasks where user_id = 1 " +
+                "and date >= '2024-01-01' and date <= '2024-01-31' order by date, id limit 21");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_user_id_date_id_covering_idx"), plan);
+        Assertions.assertTrue(plan.contains("Index Only Scan"), plan);
+        Assertions.assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void overdueTasksUseIndexOnlyScanTest() {
+        //when
+        String plan = explain("select id, title, description, date from tasks where user_id = 1 " +
+                "and date >= '0001-01-01' and date <= '2024-01-31' order by date, id limit 21");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_user_id_date_id_covering_idx"), plan);
+        Assertions.assertTrue(plan.contains("Index Only Scan"), plan);
+        Assertions.assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void upcomingTasksUseIndexOnlyScanTest() {
+        //when
+        String plan = explain("select id, title, description, date from tasks where user_id = 1 " +
+                "and date >= '2024-01-01' and date <= '9999-12-31' order by date, id limit 21");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_user_id_date_id_covering_idx"), plan);
+        Assertions.assertTrue(plan.contains("Index Only Scan"), plan);
+        Assertions.assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void searchUsesIndexTest() {
+        //when
+        String plan = explain("select id from tasks where search_vector @@ websearch_to_tsquery('simple', 'task')");
+
+        //then
+        Assertions.assertTrue(plan.contains("tasks_search_vector_idx"), plan);
+    }
+
+    /**
+     * Returns the query plan of the given query with sequential scans disabled.
+     *
+     * @param sql the query to explain
+     * @return the query plan in text format
+     */
+    private String explain(String sql) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+        });
+    }
+}
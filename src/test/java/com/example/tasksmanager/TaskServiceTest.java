@@ -1,28 +1,55 @@
 package com.example.tasksmanager;
 
+import com.example.tasksmanager.dto.BatchTaskResultDto;
+import com.example.tasksmanager.dto.BulkTaskRequestDto;
 import com.example.tasksmanager.dto.CreateTaskDto;
+import com.example.tasksmanager.dto.PatchTaskDto;
+import com.example.tasksmanager.dto.TaskSearchView;
+import com.example.tasksmanager.dto.TaskSliceDto;
+import com.example.tasksmanager.dto.TaskView;
+import com.example.tasksmanager.event.TaskChangedEvent;
 import com.example.tasksmanager.exceptions.ErrorInputDataException;
+import com.example.tasksmanager.exceptions.ErrorPermissionException;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
 import com.example.tasksmanager.mapper.TaskMapper;
 import com.example.tasksmanager.model.TaskEntity;
 import com.example.tasksmanager.model.UserEntity;
 import com.example.tasksmanager.repository.RoleRepository;
 import com.example.tasksmanager.repository.TaskRepository;
 import com.example.tasksmanager.repository.UserRepository;
+import com.example.tasksmanager.service.impl.TaskCursor;
+import com.example.tasksmanager.service.impl.TaskSearchCursor;
 import com.example.tasksmanager.service.impl.TaskServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
@@ -37,39 +64,49 @@ public class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
+    private final AuthenticatedUser principal = new AuthenticatedUser(1L, "user", "", new ArrayList<>(), 0);
+
 
     @Test
     void createIsOkTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
-
-        when(taskRepository.existsByTitle("title")).thenReturn(false);
+        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>(), 0));
 
         CreateTaskDto taskRequest = new CreateTaskDto("title", "description", Date.valueOf("2002-02-02"));
         TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
         when(taskMapper.toTaskEntity(taskRequest)).thenReturn(task);
+        when(userRepository.getReferenceById(1L)).thenReturn(user.get());
 
         //when
-        taskService.create(taskRequest,"user");
+        taskService.create(taskRequest, principal);
 
         //then
-        verify(userRepository, times(1)).findByEmail("user");
-        verify(taskRepository, times(1)).existsByTitle("title");
+        verify(userRepository, times(1)).getReferenceById(1L);
+        verify(userRepository, never()).findByEmail("user");
+        verify(taskRepository, times(1)).saveAndFlush(task);
+        verify(taskRepository, never()).existsByTitle("title");
     }
 
     @Test
     void createAlreadyExistTest() throws Exception {
         //given
         CreateTaskDto taskRequest = new CreateTaskDto("title", "description", Date.valueOf("2002-02-02"));
-        when(taskRepository.existsByTitle("title")).thenReturn(true);
+        TaskEntity task = new TaskEntity(null, "title", "description", null, Date.valueOf("2002-02-02"));
+        when(taskMapper.toTaskEntity(taskRequest)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenThrow(titleTaken());
 
         //when
         Throwable exception = assertThrowsExactly(ErrorInputDataException.class,
-                ()->{taskService.create(taskRequest, "user");} );
+                ()->{taskService.create(taskRequest, principal);} );
 
         //then
         assertEquals(ErrorInputDataException.class, exception.getClass());
@@ -78,31 +115,27 @@ public class TaskServiceTest {
     @Test
     void deleteTaskTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
-
-        TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.of(task));
+        when(taskRepository.deleteOwned("title", 1L)).thenReturn(1);
 
         //when
-        taskService.delete("title", "user");
+        taskService.delete("title", principal);
 
         //then
-        verify(taskRepository, times(1)).findByTitle("title");
-        verify(userRepository, times(1)).findByEmail("user");
+        verify(taskRepository, times(1)).deleteOwned("title", 1L);
+        verify(taskRepository, never()).findByTitle("title");
+        verify(userRepository, never()).findByEmail("user");
 
     }
 
     @Test
     void taskNotExistTest() throws Exception{
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.empty());
+        when(taskRepository.deleteOwned("title", 1L)).thenReturn(0);
+        when(taskRepository.existsByTitle("title")).thenReturn(false);
 
         //when
         Throwable exception = assertThrowsExactly(ErrorInputDataException.class,
-                ()->{taskService.delete("title", "user");} );
+                ()->{taskService.delete("title", principal);} );
 
         //then
         assertEquals(ErrorInputDataException.class, exception.getClass());
@@ -111,75 +144,372 @@ public class TaskServiceTest {
     @Test
     void editTitleTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
+        when(taskRepository.updateTitle("title", 1L, "newTitle")).thenReturn(1);
 
-        TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.of(task));
-        when(taskRepository.existsByTitle("newTitle")).thenReturn(false);
+        //when
+        taskService.editTitle("title","newTitle", principal);
+
+        //then
+        verify(taskRepository, times(1)).updateTitle("title", 1L, "newTitle");
+        verify(taskRepository, never()).existsByTitle("newTitle");
+        verify(userRepository, never()).findByEmail("user");
+    }
 
+    @Test
+    void editTitleAlreadyTakenTest() throws Exception {
+        //given
+        when(taskRepository.updateTitle("title", 1L, "newTitle")).thenThrow(titleTaken());
 
         //when
-        taskService.editTitle("title","newTitle", "user");
+        Throwable exception = assertThrowsExactly(ErrorInputDataException.class,
+                ()->{taskService.editTitle("title", "newTitle", principal);} );
 
         //then
-        verify(taskRepository, times(1)).findByTitle("title");
-        verify(taskRepository, times(1)).existsByTitle("newTitle");
-        verify(userRepository, times(1)).findByEmail("user");
+        assertEquals(ErrorInputDataException.class, exception.getClass());
     }
 
     @Test
     void editDescriptionTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
-
-        TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.of(task));
+        when(taskRepository.updateDescription("title", 1L, "newDes")).thenReturn(1);
 
         //when
-        taskService.editDescription("title","newDes", "user");
+        taskService.editDescription("title","newDes", principal);
 
         //then
-        verify(taskRepository, times(1)).findByTitle("title");
-        verify(userRepository, times(1)).findByEmail("user");
+        verify(taskRepository, times(1)).updateDescription("title", 1L, "newDes");
+        verify(taskRepository, never()).findByTitle("title");
     }
 
     @Test
     void editDateTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
-
-        TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.of(task));
+        Date newDate = new Date(100);
+        when(taskRepository.updateDate("title", 1L, newDate)).thenReturn(1);
 
         //when
-        taskService.editDate("title",new Date(100), "user");
+        taskService.editDate("title", newDate, principal);
 
         //then
-        verify(taskRepository, times(1)).findByTitle("title");
-        verify(userRepository, times(1)).findByEmail("user");
+        verify(taskRepository, times(1)).updateDate("title", 1L, newDate);
+        verify(taskRepository, never()).findByTitle("title");
     }
 
     @Test
     void editUserTest() throws Exception {
         //given
-        Optional<UserEntity> user = Optional.of(new UserEntity(1L, "user", "user", "user", new ArrayList<>()));
-        when(userRepository.findByEmail("user")).thenReturn(user);
+        when(userRepository.findIdByUsername("user2")).thenReturn(Optional.of(2L));
+        when(taskRepository.updateUser("title", 1L, 2L)).thenReturn(1);
 
-        Optional<UserEntity> user2 = Optional.of(new UserEntity(2L, "user2", "user2", "user2", new ArrayList<>()));
-        when(userRepository.findByUsername("user2")).thenReturn(user2);
+        //when
+        taskService.editUser("title", "user2", principal);
 
-        TaskEntity task = new TaskEntity(1, "title", "de", user.get(), Date.valueOf("2002-02-02"));
-        when(taskRepository.findByTitle("title")).thenReturn(Optional.of(task));
+        //then
+        verify(taskRepository, times(1)).updateUser("title", 1L, 2L);
+        verify(userRepository, never()).findByUsername("user2");
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                ((TaskChangedEvent) event).getUserIds().equals(List.of(1L, 2L))));
+    }
+
+    @Test
+    void editUserNotExistTest() throws Exception {
+        //given
+        when(userRepository.findIdByUsername("user3")).thenReturn(Optional.empty());
 
         //when
-        taskService.editUser("title", "user2", "user");
+        Throwable exception = assertThrowsExactly(ErrorInputDataException.class,
+                ()->{taskService.editUser("title", "user3", principal);} );
 
         //then
-        verify(taskRepository, times(1)).findByTitle("title");
-        verify(userRepository, times(1)).findByEmail("user");
-        verify(userRepository, times(1)).findByUsername("user2");
+        assertEquals(ErrorInputDataException.class, exception.getClass());
+        verify(taskRepository, never()).updateUser(any(), any(), any());
+    }
+
+    @Test
+    void editForeignTaskTest() throws Exception {
+        //given
+        when(taskRepository.updateDescription("title", 1L, "newDes")).thenReturn(0);
+        when(taskRepository.existsByTitle("title")).thenReturn(true);
+        when(taskRepository.existsByTitleAndUserId("title", 1L)).thenReturn(false);
+
+        //when
+        Throwable exception = assertThrowsExactly(ErrorPermissionException.class,
+                ()->{taskService.editDescription("title", "newDes", principal);} );
+
+        //then
+        assertEquals(ErrorPermissionException.class, exception.getClass());
+    }
+
+    @Test
+    void patchTest() throws Exception {
+        //given
+        PatchTaskDto patch = new PatchTaskDto("newTitle", "newDes", Date.valueOf("2002-02-02"), "user2");
+        when(userRepository.findIdByUsername("user2")).thenReturn(Optional.of(2L));
+        when(taskRepository.patchOwned("title", 1L, "newTitle", "newDes", Date.valueOf("2002-02-02"), 2L)).thenReturn(1);
+
+        //when
+        taskService.patch("title", patch, principal);
+
+        //then
+        verify(taskRepository, times(1)).patchOwned("title", 1L, "newTitle", "newDes", Date.valueOf("2002-02-02"), 2L);
+        verify(taskRepository, never()).findByTitle("title");
+    }
+
+    @Test
+    void patchNothingTest() throws Exception {
+        //given
+        PatchTaskDto patch = new PatchTaskDto();
+
+        //when
+        Throwable exception = assertThrowsExactly(ErrorInputDataException.class,
+                ()->{taskService.patch("title", patch, principal);} );
+
+        //then
+        assertEquals(ErrorInputDataException.class, exception.getClass());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void showMyTasksAfterTest() {
+        //given
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 7);
+        row.put("title", "title");
+        row.put("description", "de");
+        row.put("date", Date.valueOf("2002-02-02"));
+        TaskView task = new SpelAwareProxyProjectionFactory().createProjection(TaskView.class, row);
+        when(taskRepository.findViewsByUserIdAfter(1L, Date.valueOf("2002-01-01"), 3, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(0, 1), true));
+
+        //when
+        String after = new TaskCursor(Date.valueOf("2002-01-01"), 3).encode();
+        TaskSliceDto slice = taskService.showMyTasksAfter(principal, 1, after);
+
+        //then
+        TaskCursor next = TaskCursor.decode(slice.getNextCursor());
+        assertEquals(Date.valueOf("2002-02-02"), next.getDate());
+        assertEquals(7, next.getId());
+        verify(taskRepository, never()).findViewsByUserId(any(), any());
+    }
+
+    @Test
+    void showMyTasksAfterLastPageTest() {
+        //given
+        when(taskRepository.findViewsByUserId(1L, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, 20), false));
+
+        //when
+        TaskSliceDto slice = taskService.showMyTasksAfter(principal, 20, "");
+
+        //then
+        assertNull(slice.getNextCursor());
+    }
+
+    @Test
+    void searchMyTasksNextCursorTest() {
+        //given
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 7);
+        row.put("title", "title");
+        row.put("description", "de");
+        row.put("date", Date.valueOf("2002-02-02"));
+        row.put("rank", 0.5f);
+        TaskSearchView first = new SpelAwareProxyProjectionFactory().createProjection(TaskSearchView.class, row);
+        TaskSearchView second = new SpelAwareProxyProjectionFactory().createProjection(TaskSearchView.class, new HashMap<>(row));
+        when(taskRepository.searchAfter(1L, "title", 0.75f, 9, 2)).thenReturn(List.of(first, second));
+
+        //when
+        String after = new TaskSearchCursor(0.75f, 9).encode();
+        TaskSliceDto slice = taskService.searchMyTasks(principal, "title", 1, after);
+
+        //then
+        TaskSearchCursor next = TaskSearchCursor.decode(slice.getNextCursor());
+        assertEquals(0.5f, next.getRank());
+        assertEquals(7, next.getId());
+        verify(taskRepository, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void searchMyTasksBlankQueryTest() {
+        //when
+        assertThrowsExactly(ErrorInputDataException.class, () -> taskService.searchMyTasks(principal, " ", 20, null));
+
+        //then
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void showDueTasksEmptyRangeTest() {
+        //when
+        assertThrowsExactly(ErrorInputDataException.class,
+                () -> taskService.showDueTasks(principal, Date.valueOf("2002-02-02"), Date.valueOf("2002-02-01"), 20, null));
+
+        //then
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void showUpcomingTasksStaleCursorTest() {
+        //given
+        Date today = Date.valueOf(LocalDate.now());
+        when(taskRepository.findViewsByUserIdAndDateBetween(eq(1L), eq(today), any(), eq(PageRequest.of(0, 10))))
+                .thenReturn(new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, 10), false));
+
+        //when
+        String yesterday = new TaskCursor(Date.valueOf(LocalDate.now().minusDays(1)), 3).encode();
+        TaskSliceDto slice = taskService.showUpcomingTasks(principal, 10, yesterday);
+
+        //then
+        assertNull(slice.getNextCursor());
+        verify(taskRepository, never()).findViewsByUserIdAndDateBetweenAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void createBatchTest() throws Exception {
+        //given
+        UserEntity user = new UserEntity(1L, "user", "user", "user", new ArrayList<>(), 0);
+        CreateTaskDto newTask = new CreateTaskDto("new", "description", Date.valueOf("2002-02-02"));
+        CreateTaskDto existingTask = new CreateTaskDto("existing", "description", Date.valueOf("2002-02-02"));
+        CreateTaskDto repeatedTask = new CreateTaskDto("new", "description", Date.valueOf("2002-02-02"));
+        CreateTaskDto invalidTask = new CreateTaskDto("invalid", "description", null);
+        when(taskRepository.findExistingTitles(anyCollection())).thenReturn(List.of("existing"));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(taskMapper.toTaskEntity(newTask)).thenReturn(new TaskEntity(null, "new", "description", null, Date.valueOf("2002-02-02")));
+
+        //when
+        List<BatchTaskResultDto> results = taskService.createBatch(List.of(newTask, existingTask, repeatedTask, invalidTask), principal);
+
+        //then
+        assertEquals(BatchTaskResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BatchTaskResultDto.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(BatchTaskResultDto.Status.DUPLICATE, results.get(2).getStatus());
+        assertEquals(BatchTaskResultDto.Status.INVALID, results.get(3).getStatus());
+        verify(taskRepository, times(1)).findExistingTitles(anyCollection());
+        verify(taskRepository, never()).existsByTitle(any());
+        verify(taskRepository, times(1)).saveAllAndFlush(argThat(tasks -> ((List<?>) tasks).size() == 1));
+    }
+
+    @Test
+    void bulkRequiresTitlesOrAllTest() {
+        //when
+        assertThrowsExactly(ErrorInputDataException.class,
+                () -> taskService.bulkDelete(new BulkTaskRequestDto(null, false, null), principal));
+        assertThrowsExactly(ErrorInputDataException.class,
+                () -> taskService.bulkDelete(new BulkTaskRequestDto(new ArrayList<>(), false, null), principal));
+        assertThrowsExactly(ErrorInputDataException.class,
+                () -> taskService.bulkReassign(new BulkTaskRequestDto(List.of("a"), true, "user2"), principal));
+
+        //then
+        verifyNoInteractions(taskRepository, transactionTemplate, eventPublisher);
+    }
+
+    @Test
+    void bulkReassignToSelfTest() {
+        //given
+        when(userRepository.findIdByUsername("user")).thenReturn(Optional.of(1L));
+
+        //when
+        int reassigned = taskService.bulkReassign(new BulkTaskRequestDto(null, true, "user"), principal);
+
+        //then
+        assertEquals(0, reassigned);
+        verifyNoInteractions(taskRepository, transactionTemplate, eventPublisher);
+    }
+
+    @Test
+    void bulkDeleteByTitlesTest() {
+        //given
+        runInTransactions(2);
+        when(taskRepository.deleteOwnedByTitles(List.of("a", "b"), 1L)).thenReturn(List.of("a", "b"));
+        when(taskRepository.deleteOwnedByTitles(List.of("c", "d"), 1L)).thenReturn(List.of("d"));
+        when(taskRepository.deleteOwnedByTitles(List.of("e"), 1L)).thenReturn(new ArrayList<>());
+
+        //when
+        int deleted = taskService.bulkDelete(new BulkTaskRequestDto(List.of("a", "b", "c", "d", "e"), false, null), principal);
+
+        //then
+        assertEquals(3, deleted);
+        verify(transactionTemplate, times(3)).execute(any());
+        List<TaskChangedEvent> events = publishedEvents(2);
+        assertEquals(List.of("a", "b"), events.get(0).getTitles());
+        assertEquals(List.of("d"), events.get(1).getTitles());
+        assertEquals(TaskChangedEvent.Type.DELETED, events.get(1).getType());
+        assertEquals(1L, events.get(1).getUserId());
+        assertNull(events.get(1).getNewUserId());
+    }
+
+    @Test
+    void bulkDeleteAllTest() {
+        //given
+        runInTransactions(2);
+        when(taskRepository.deleteOwnedChunk(1L, 2)).thenReturn(List.of("a", "b"), List.of("c", "d"), new ArrayList<>());
+
+        //when
+        int deleted = taskService.bulkDelete(new BulkTaskRequestDto(null, true, null), principal);
+
+        //then
+        assertEquals(4, deleted);
+        verify(taskRepository, times(3)).deleteOwnedChunk(1L, 2);
+        List<TaskChangedEvent> events = publishedEvents(2);
+        assertEquals(List.of("a", "b"), events.get(0).getTitles());
+        assertEquals(List.of("c", "d"), events.get(1).getTitles());
+    }
+
+    @Test
+    void bulkDeletePublishesCommittedChunksTest() {
+        //given
+        runInTransactions(2);
+        when(taskRepository.deleteOwnedByTitles(List.of("a", "b"), 1L)).thenReturn(List.of("a", "b"));
+        when(taskRepository.deleteOwnedByTitles(List.of("c"), 1L)).thenThrow(new QueryTimeoutException("timeout"));
+
+        //when
+        assertThrowsExactly(QueryTimeoutException.class,
+                () -> taskService.bulkDelete(new BulkTaskRequestDto(List.of("a", "b", "c"), false, null), principal));
+
+        //then
+        List<TaskChangedEvent> events = publishedEvents(1);
+        assertEquals(List.of("a", "b"), events.get(0).getTitles());
+    }
+
+    @Test
+    void bulkReassignAllTest() {
+        //given
+        runInTransactions(2);
+        when(userRepository.findIdByUsername("user2")).thenReturn(Optional.of(2L));
+        when(taskRepository.reassignOwnedChunk(1L, 2L, 2)).thenReturn(List.of("a"));
+
+        //when
+        int reassigned = taskService.bulkReassign(new BulkTaskRequestDto(null, true, "user2"), principal);
+
+        //then
+        assertEquals(1, reassigned);
+        verify(taskRepository, times(1)).reassignOwnedChunk(1L, 2L, 2);
+        TaskChangedEvent event = publishedEvents(1).get(0);
+        assertEquals(TaskChangedEvent.Type.REASSIGNED, event.getType());
+        assertEquals(List.of("a"), event.getTitles());
+        assertEquals(1L, event.getUserId());
+        assertEquals(2L, event.getNewUserId());
+        assertTrue(event.getUserIds().contains(2L));
+    }
+
+    /**
+     * Sets the chunk size of the bulk operations and runs the callbacks of the transaction template directly.
+     */
+    @SuppressWarnings("unchecked")
+    private void runInTransactions(int chunkSize) {
+        ReflectionTestUtils.setField(taskService, "bulkChunkSize", chunkSize);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private List<TaskChangedEvent> publishedEvents(int count) {
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher, times(count)).publishEvent(events.capture());
+        return events.getAllValues();
+    }
+
+    private DataIntegrityViolationException titleTaken() {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), "tasks_title_uindex"));
     }
 }
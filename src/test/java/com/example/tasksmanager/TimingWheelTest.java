@@ -0,0 +1,144 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.reminder.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    private final TimingWheel<Integer, String> wheel = new TimingWheel<>(1000, 0);
+
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void expiresAtDeadlineTest() {
+        //given
+        wheel.schedule(1, 5000, "a");
+
+        //when
+        wheel.advance(4999, expired::add);
+
+        //then
+        assertTrue(expired.isEmpty());
+
+        //when
+        wheel.advance(5000, expired::add);
+
+        //then
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBetweenTicksIsNotExpiredEarlyTest() {
+        //given
+        wheel.schedule(1, 5500, "a");
+
+        //when
+        wheel.advance(5999, expired::add);
+
+        //then
+        assertTrue(expired.isEmpty());
+
+        //when
+        wheel.advance(6000, expired::add);
+
+        //then
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void distantDeadlinesCascadeTest() {
+        //given deadlines on every level of the wheel and beyond it
+        long[] deadlines = {70_000, 5_000_000, 300_000_000, 20_000_000_000L};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i], "t" + i);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            //when
+            wheel.advance(deadlines[i] - 1000, expired::add);
+
+            //then
+            assertEquals(i, expired.size());
+
+            //when
+            wheel.advance(deadlines[i], expired::add);
+
+            //then
+            assertEquals("t" + i, expired.get(i));
+        }
+    }
+
+    @Test
+    void expiresInOrderOfDeadlinesTest() {
+        //given
+        wheel.schedule(1, 4_100_000, "late");
+        wheel.schedule(2, 65_000, "early");
+        wheel.schedule(3, 4_000_000, "middle");
+
+        //when
+        wheel.advance(5_000_000, expired::add);
+
+        //then
+        assertEquals(List.of("early", "middle", "late"), expired);
+    }
+
+    @Test
+    void rescheduleAndCancelTest() {
+        //given
+        wheel.schedule(1, 10_000, "a");
+        wheel.schedule(2, 10_000, "b");
+
+        //when
+        wheel.schedule(1, 20_000, "a2");
+        String cancelled = wheel.cancel(2);
+        wheel.advance(10_000, expired::add);
+
+        //then
+        assertEquals("b", cancelled);
+        assertTrue(expired.isEmpty());
+        assertNull(wheel.cancel(2));
+
+        //when
+        wheel.advance(20_000, expired::add);
+
+        //then
+        assertEquals(List.of("a2"), expired);
+    }
+
+    @Test
+    void cancelIfTest() {
+        //given
+        wheel.schedule(1, 10_000, "keep");
+        wheel.schedule(2, 10_000_000, "drop");
+
+        //when
+        List<String> cancelled = wheel.cancelIf(value -> value.equals("drop"));
+        wheel.advance(20_000_000, expired::add);
+
+        //then
+        assertEquals(List.of("drop"), cancelled);
+        assertEquals(List.of("keep"), expired);
+    }
+
+    @Test
+    void reachedDeadlineIsNotScheduledTest() {
+        //given
+        wheel.advance(10_000, expired::add);
+
+        //when
+        boolean scheduled = wheel.schedule(1, 10_000, "a");
+
+        //then
+        assertFalse(scheduled);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.event.TokenRevokedEvent;
+import com.example.tasksmanager.jwt.TokenDenylist;
+import com.example.tasksmanager.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenDenylistTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TokenDenylist tokenDenylist;
+
+    @BeforeEach
+    void setUp() {
+        tokenDenylist = new TokenDenylist(revokedTokenRepository, eventPublisher, new SimpleMeterRegistry(), 1000, 0.01);
+    }
+
+    @Test
+    void revokedTokenIsDeniedTest() {
+        //given
+        String jti = UUID.randomUUID().toString();
+
+        //when
+        tokenDenylist.revoke(jti, System.currentTimeMillis() + 60000);
+
+        //then
+        assertTrue(tokenDenylist.isRevoked(jti));
+        assertFalse(tokenDenylist.isRevoked(UUID.randomUUID().toString()));
+        verify(revokedTokenRepository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(TokenRevokedEvent.class));
+    }
+
+    @Test
+    void expiredTokenIsDroppedTest() {
+        //given
+        String jti = UUID.randomUUID().toString();
+        tokenDenylist.onTokenRevoked(new TokenRevokedEvent(jti, System.currentTimeMillis() - 1, true));
+
+        //when
+        tokenDenylist.cleanup();
+
+        //then
+        assertFalse(tokenDenylist.isRevoked(jti));
+        verify(revokedTokenRepository, times(1)).deleteExpiredBefore(any());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.tasksmanager;
+
+import com.example.tasksmanager.event.ClusterResyncEvent;
+import com.example.tasksmanager.event.UserChangedEvent;
+import com.example.tasksmanager.jwt.AuthenticatedUser;
+import com.example.tasksmanager.jwt.JwtUserDetailsService;
+import com.example.tasksmanager.jwt.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class UserDetailsCacheTest {
+
+    private final JwtUserDetailsService jwtUserDetailsService = mock(JwtUserDetailsService.class);
+
+    private final UserDetailsCache cache = new UserDetailsCache(jwtUserDetailsService, new SimpleMeterRegistry(), 100, 300000);
+
+    private final AuthenticatedUser user = new AuthenticatedUser(1L, "User1@gmail.com", "password",
+            List.of(new SimpleGrantedAuthority("USER")), 0);
+
+    private final AuthenticatedUser admin = new AuthenticatedUser(1L, "User1@gmail.com", "password",
+            List.of(new SimpleGrantedAuthority("ADMIN")), 1);
+
+    @Test
+    void cachedUserIsLoadedOnceTest() {
+        //given
+        when(jwtUserDetailsService.loadUserByUsername("User1@gmail.com")).thenReturn(user);
+
+        //when
+        cache.get("User1@gmail.com");
+        AuthenticatedUser cached = cache.get("User1@gmail.com");
+
+        //then
+        verify(jwtUserDetailsService, times(1)).loadUserByUsername("User1@gmail.com");
+        assertEquals("", cached.getPassword());
+    }
+
+    @Test
+    void userChangeEvictsUserTest() {
+        //given
+        when(jwtUserDetailsService.loadUserByUsername("User1@gmail.com")).thenReturn(user, admin);
+        cache.get("User1@gmail.com");
+
+        //when
+        cache.onUserChanged(new UserChangedEvent(1L, "User1@gmail.com"));
+        AuthenticatedUser reloaded = cache.get("User1@gmail.com");
+
+        //then
+        verify(jwtUserDetailsService, times(2)).loadUserByUsername("User1@gmail.com");
+        assertEquals(List.of(new SimpleGrantedAuthority("ADMIN")), List.copyOf(reloaded.getAuthorities()));
+        assertEquals(1, reloaded.getRolesVersion());
+    }
+
+    @Test
+    void changeOfAnotherUserKeepsUserTest() {
+        //given
+        when(jwtUserDetailsService.loadUserByUsername("User1@gmail.com")).thenReturn(user);
+        cache.get("User1@gmail.com");
+
+        //when
+        cache.onUserChanged(new UserChangedEvent(2L, "User2@gmail.com"));
+        cache.get("User1@gmail.com");
+
+        //then
+        verify(jwtUserDetailsService, times(1)).loadUserByUsername("User1@gmail.com");
+    }
+
+    @Test
+    void resyncEvictsAllUsersTest() {
+        //given
+        when(jwtUserDetailsService.loadUserByUsername("User1@gmail.com")).thenReturn(user);
+        cache.get("User1@gmail.com");
+
+        //when
+        cache.onClusterResync(new ClusterResyncEvent());
+        cache.get("User1@gmail.com");
+
+        //then
+        verify(jwtUserDetailsService, times(2)).loadUserByUsername("User1@gmail.com");
+    }
+}
@@ -16,12 +16,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
 
+@ActiveProfiles("test")
 @SpringBootTest
 public class UserMapperTest {
 
@@ -36,7 +38,7 @@ public class UserMapperTest {
         //given
         RoleEntity role = new RoleEntity(1, "USER");
         List<RoleEntity> roles = Collections.singletonList(role);
-        UserEntity user = new UserEntity(1L, "email", "username", "password", roles);
+        UserEntity user = new UserEntity(1L, "email", "username", "password", roles, 0);
 
         //when
         UserResponseDto userResponseDto = userMapper.toUserResponseDto(user);
@@ -54,7 +56,7 @@ public class UserMapperTest {
         //given
         RoleEntity role = new RoleEntity(1, "USER");
         List<RoleEntity> roles = Collections.singletonList(role);
-        UserEntity user = new UserEntity(1L, "email", "username", "password", roles);
+        UserEntity user = new UserEntity(1L, "email", "username", "password", roles, 0);
         List<UserEntity> users = Collections.singletonList(user);
 
         //when